@@ -7,7 +7,10 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "auctions")
+@Table(name = "auctions", indexes = {
+        @Index(name = "idx_auction_status_changed", columnList = "status_changed_time, auctionId"),
+        @Index(name = "idx_auction_last_bid", columnList = "lastBidTime")
+})
 @NamedQueries({
         @NamedQuery(name = "Auction.findActive",
                 query = "SELECT a FROM Auction a WHERE a.status = 'ACTIVE' AND a.endTime > CURRENT_TIMESTAMP"),
@@ -56,6 +59,10 @@ public class Auction implements Serializable {
     @Column(nullable = false)
     private AuctionStatus status = AuctionStatus.PENDING;
 
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "status_changed_time")
+    private Date statusChangedTime = new Date();
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
     private User seller;
@@ -64,6 +71,24 @@ public class Auction implements Serializable {
     @OrderBy("bidTime DESC")
     private List<Bid> bids;
 
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "winning_bid_id")
+    private Bid winningBid;
+
+    // Denormalized from the winning bid so readers never aggregate over bids
+    @Column(precision = 10, scale = 2)
+    private BigDecimal highestBidAmount;
+
+    @Column
+    private Long highestBidderId;
+
+    @Column(nullable = false)
+    private int bidCount = 0;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column
+    private Date lastBidTime;
+
     @Version
     private Long version;
 
@@ -87,6 +112,19 @@ public class Auction implements Serializable {
         return status == AuctionStatus.ACTIVE && new Date().before(endTime);
     }
 
+    /**
+     * Makes the bid the auction's winning bid and updates the price and bid statistics
+     * in the same transaction.
+     */
+    public void registerWinningBid(Bid bid) {
+        this.winningBid = bid;
+        this.currentPrice = bid.getAmount();
+        this.highestBidAmount = bid.getAmount();
+        this.highestBidderId = bid.getBidder().getUserId();
+        this.bidCount++;
+        this.lastBidTime = bid.getBidTime();
+    }
+
     public boolean hasReachedReserve() {
         return reservePrice == null ||
                 (currentPrice != null && currentPrice.compareTo(reservePrice) >= 0);
@@ -124,7 +162,15 @@ public class Auction implements Serializable {
     public void setEndTime(Date endTime) { this.endTime = endTime; }
 
     public AuctionStatus getStatus() { return status; }
-    public void setStatus(AuctionStatus status) { this.status = status; }
+    public void setStatus(AuctionStatus status) {
+        if (this.status != status) {
+            this.statusChangedTime = new Date();
+        }
+        this.status = status;
+    }
+
+    public Date getStatusChangedTime() { return statusChangedTime; }
+    public void setStatusChangedTime(Date statusChangedTime) { this.statusChangedTime = statusChangedTime; }
 
     public User getSeller() { return seller; }
     public void setSeller(User seller) { this.seller = seller; }
@@ -132,6 +178,21 @@ public class Auction implements Serializable {
     public List<Bid> getBids() { return bids; }
     public void setBids(List<Bid> bids) { this.bids = bids; }
 
+    public Bid getWinningBid() { return winningBid; }
+    public void setWinningBid(Bid winningBid) { this.winningBid = winningBid; }
+
+    public BigDecimal getHighestBidAmount() { return highestBidAmount; }
+    public void setHighestBidAmount(BigDecimal highestBidAmount) { this.highestBidAmount = highestBidAmount; }
+
+    public Long getHighestBidderId() { return highestBidderId; }
+    public void setHighestBidderId(Long highestBidderId) { this.highestBidderId = highestBidderId; }
+
+    public int getBidCount() { return bidCount; }
+    public void setBidCount(int bidCount) { this.bidCount = bidCount; }
+
+    public Date getLastBidTime() { return lastBidTime; }
+    public void setLastBidTime(Date lastBidTime) { this.lastBidTime = lastBidTime; }
+
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
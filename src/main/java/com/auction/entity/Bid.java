@@ -12,9 +12,7 @@ import java.util.Date;
 })
 @NamedQueries({
         @NamedQuery(name = "Bid.findByAuction",
-                query = "SELECT b FROM Bid b WHERE b.auction = :auction ORDER BY b.bidTime DESC"),
-        @NamedQuery(name = "Bid.findHighestBid",
-                query = "SELECT b FROM Bid b WHERE b.auction = :auction AND b.amount = (SELECT MAX(b2.amount) FROM Bid b2 WHERE b2.auction = :auction)")
+                query = "SELECT b FROM Bid b WHERE b.auction = :auction ORDER BY b.bidTime DESC")
 })
 public class Bid implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -45,6 +43,10 @@ public class Bid implements Serializable {
     @Column(nullable = false)
     private BidStatus status = BidStatus.ACTIVE;
 
+    // Set only for bids accepted by the in-memory matching engine
+    @Column
+    private Long journalSequence;
+
     // Constructors
     public Bid() {
         this.bidTime = new Date();
@@ -78,4 +80,7 @@ public class Bid implements Serializable {
 
     public BidStatus getStatus() { return status; }
     public void setStatus(BidStatus status) { this.status = status; }
+
+    public Long getJournalSequence() { return journalSequence; }
+    public void setJournalSequence(Long journalSequence) { this.journalSequence = journalSequence; }
 }
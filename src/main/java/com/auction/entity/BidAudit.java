@@ -0,0 +1,79 @@
+package com.auction.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Entity
+@Table(name = "bid_audits", indexes = {
+        @Index(name = "idx_audit_auction_time", columnList = "auction_id, created_time")
+})
+public class BidAudit implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long auditId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "auction_id", nullable = false)
+    private Auction auction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bid_id")
+    private Bid bid;
+
+    @Column(nullable = false)
+    private String triggeredBy;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal previousPrice;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal runnerUpAmount;
+
+    @Column
+    private int competingProxies;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_time", nullable = false)
+    private Date createdTime;
+
+    // Constructors
+    public BidAudit() {
+        this.createdTime = new Date();
+    }
+
+    public BidAudit(Auction auction, Bid bid, String triggeredBy) {
+        this();
+        this.auction = auction;
+        this.bid = bid;
+        this.triggeredBy = triggeredBy;
+    }
+
+    // Getters and Setters
+    public Long getAuditId() { return auditId; }
+    public void setAuditId(Long auditId) { this.auditId = auditId; }
+
+    public Auction getAuction() { return auction; }
+    public void setAuction(Auction auction) { this.auction = auction; }
+
+    public Bid getBid() { return bid; }
+    public void setBid(Bid bid) { this.bid = bid; }
+
+    public String getTriggeredBy() { return triggeredBy; }
+    public void setTriggeredBy(String triggeredBy) { this.triggeredBy = triggeredBy; }
+
+    public BigDecimal getPreviousPrice() { return previousPrice; }
+    public void setPreviousPrice(BigDecimal previousPrice) { this.previousPrice = previousPrice; }
+
+    public BigDecimal getRunnerUpAmount() { return runnerUpAmount; }
+    public void setRunnerUpAmount(BigDecimal runnerUpAmount) { this.runnerUpAmount = runnerUpAmount; }
+
+    public int getCompetingProxies() { return competingProxies; }
+    public void setCompetingProxies(int competingProxies) { this.competingProxies = competingProxies; }
+
+    public Date getCreatedTime() { return createdTime; }
+    public void setCreatedTime(Date createdTime) { this.createdTime = createdTime; }
+}
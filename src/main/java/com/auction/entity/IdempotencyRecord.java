@@ -0,0 +1,63 @@
+package com.auction.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_created", columnList = "created_time")
+})
+@NamedQueries({
+        @NamedQuery(name = "IdempotencyRecord.deleteOlderThan",
+                query = "DELETE FROM IdempotencyRecord r WHERE r.createdTime < :cutoff")
+})
+public class IdempotencyRecord implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 160)
+    private String requestKey;
+
+    @Column(nullable = false)
+    private Long auctionId;
+
+    @Column(nullable = false)
+    private int statusCode;
+
+    @Column(nullable = false, length = 4000)
+    private String responseBody;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_time", nullable = false)
+    private Date createdTime;
+
+    // Constructors
+    public IdempotencyRecord() {
+        this.createdTime = new Date();
+    }
+
+    public IdempotencyRecord(String requestKey, Long auctionId, int statusCode, String responseBody) {
+        this();
+        this.requestKey = requestKey;
+        this.auctionId = auctionId;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    // Getters and Setters
+    public String getRequestKey() { return requestKey; }
+    public void setRequestKey(String requestKey) { this.requestKey = requestKey; }
+
+    public Long getAuctionId() { return auctionId; }
+    public void setAuctionId(Long auctionId) { this.auctionId = auctionId; }
+
+    public int getStatusCode() { return statusCode; }
+    public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public Date getCreatedTime() { return createdTime; }
+    public void setCreatedTime(Date createdTime) { this.createdTime = createdTime; }
+}
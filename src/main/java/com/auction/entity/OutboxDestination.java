@@ -0,0 +1,6 @@
+package com.auction.entity;
+
+public enum OutboxDestination {
+    BID_TOPIC,
+    AUCTION_EVENT_QUEUE
+}
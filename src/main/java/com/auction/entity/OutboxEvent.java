@@ -0,0 +1,80 @@
+package com.auction.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * A message waiting to be published, written in the same transaction as the change it
+ * describes. Rows are published in id order and deleted once sent.
+ */
+@Entity
+@Table(name = "outbox_events")
+@NamedQueries({
+        @NamedQuery(name = "OutboxEvent.findPending",
+                query = "SELECT o FROM OutboxEvent o ORDER BY o.outboxEventId"),
+        @NamedQuery(name = "OutboxEvent.deleteByIds",
+                query = "DELETE FROM OutboxEvent o WHERE o.outboxEventId IN :outboxEventIds")
+})
+public class OutboxEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long outboxEventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxDestination destination;
+
+    @Column(nullable = false)
+    private Long auctionId;
+
+    @Column(nullable = false, length = 50)
+    private String messageType;
+
+    @Column(length = 50)
+    private String category;
+
+    @Column(nullable = false, length = 4000)
+    private byte[] payload;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date createdTime;
+
+    // Constructors
+    public OutboxEvent() {
+        this.createdTime = new Date();
+    }
+
+    public OutboxEvent(OutboxDestination destination, Long auctionId, String messageType, byte[] payload) {
+        this();
+        this.destination = destination;
+        this.auctionId = auctionId;
+        this.messageType = messageType;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getOutboxEventId() { return outboxEventId; }
+    public void setOutboxEventId(Long outboxEventId) { this.outboxEventId = outboxEventId; }
+
+    public OutboxDestination getDestination() { return destination; }
+    public void setDestination(OutboxDestination destination) { this.destination = destination; }
+
+    public Long getAuctionId() { return auctionId; }
+    public void setAuctionId(Long auctionId) { this.auctionId = auctionId; }
+
+    public String getMessageType() { return messageType; }
+    public void setMessageType(String messageType) { this.messageType = messageType; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public byte[] getPayload() { return payload; }
+    public void setPayload(byte[] payload) { this.payload = payload; }
+
+    public Date getCreatedTime() { return createdTime; }
+    public void setCreatedTime(Date createdTime) { this.createdTime = createdTime; }
+}
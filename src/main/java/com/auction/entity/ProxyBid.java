@@ -0,0 +1,75 @@
+package com.auction.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Entity
+@Table(name = "proxy_bids", indexes = {
+        @Index(name = "idx_proxy_auction_active", columnList = "auction_id, active")
+})
+@NamedQueries({
+        @NamedQuery(name = "ProxyBid.findActiveByAuction",
+                query = "SELECT p FROM ProxyBid p WHERE p.auction.auctionId = :auctionId AND p.active = true ORDER BY p.createdTime"),
+        @NamedQuery(name = "ProxyBid.findActiveByBidder",
+                query = "SELECT p FROM ProxyBid p WHERE p.auction.auctionId = :auctionId AND p.bidder.userId = :bidderId AND p.active = true"),
+        @NamedQuery(name = "ProxyBid.deactivate",
+                query = "UPDATE ProxyBid p SET p.active = false WHERE p.proxyBidId IN :proxyBidIds")
+})
+public class ProxyBid implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long proxyBidId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "auction_id", nullable = false)
+    private Auction auction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bidder_id", nullable = false)
+    private User bidder;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal maxAmount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date createdTime;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    // Constructors
+    public ProxyBid() {
+        this.createdTime = new Date();
+    }
+
+    public ProxyBid(Auction auction, User bidder, BigDecimal maxAmount) {
+        this();
+        this.auction = auction;
+        this.bidder = bidder;
+        this.maxAmount = maxAmount;
+    }
+
+    // Getters and Setters
+    public Long getProxyBidId() { return proxyBidId; }
+    public void setProxyBidId(Long proxyBidId) { this.proxyBidId = proxyBidId; }
+
+    public Auction getAuction() { return auction; }
+    public void setAuction(Auction auction) { this.auction = auction; }
+
+    public User getBidder() { return bidder; }
+    public void setBidder(User bidder) { this.bidder = bidder; }
+
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+
+    public Date getCreatedTime() { return createdTime; }
+    public void setCreatedTime(Date createdTime) { this.createdTime = createdTime; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+}
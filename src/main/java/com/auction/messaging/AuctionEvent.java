@@ -0,0 +1,69 @@
+package com.auction.messaging;
+
+import com.auction.entity.AuctionStatus;
+import com.auction.entity.OutboxDestination;
+import com.auction.entity.OutboxEvent;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A change in an auction's lifecycle status, published to the AuctionEventQueue through
+ * the outbox in the same transaction as the status change.
+ */
+public class AuctionEvent {
+
+    private final AuctionEventType type;
+    private final Long auctionId;
+    private final String category;
+    private final AuctionStatus previousStatus;
+    private final AuctionStatus status;
+    private final BigDecimal currentPrice;
+    private final Date occurredAt;
+
+    public AuctionEvent(AuctionEventType type, Long auctionId, String category,
+                        AuctionStatus previousStatus, AuctionStatus status, BigDecimal currentPrice,
+                        Date occurredAt) {
+        this.type = type;
+        this.auctionId = auctionId;
+        this.category = category;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.currentPrice = currentPrice;
+        this.occurredAt = occurredAt;
+    }
+
+    public OutboxEvent toOutboxEvent() {
+        OutboxEvent event = new OutboxEvent(OutboxDestination.AUCTION_EVENT_QUEUE, auctionId,
+                type.name(), AuctionEventCodec.encode(this));
+        event.setCategory(category);
+        return event;
+    }
+
+    public AuctionEventType getType() { return type; }
+
+    public Long getAuctionId() { return auctionId; }
+
+    public String getCategory() { return category; }
+
+    public AuctionStatus getPreviousStatus() { return previousStatus; }
+
+    public AuctionStatus getStatus() { return status; }
+
+    public BigDecimal getCurrentPrice() { return currentPrice; }
+
+    public Date getOccurredAt() { return occurredAt; }
+
+    @Override
+    public String toString() {
+        return "AuctionEvent{" +
+                "type=" + type +
+                ", auctionId=" + auctionId +
+                ", category='" + category + '\'' +
+                ", previousStatus=" + previousStatus +
+                ", status=" + status +
+                ", currentPrice=" + currentPrice +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
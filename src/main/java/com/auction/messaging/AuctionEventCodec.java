@@ -0,0 +1,89 @@
+package com.auction.messaging;
+
+import com.auction.entity.AuctionStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Binary encoding of {@link AuctionEvent}, in the same style as {@link BidMessageCodec}.
+ * Layout (big-endian): version byte, event type ordinal, auctionId, previous status
+ * ordinal (-1 if none), status ordinal, occurredAt millis, category length (short, -1 if
+ * absent) and UTF-8 bytes, then the current price scale (byte, -1 if absent) and unscaled
+ * value. Enum constants may only be appended, never reordered.
+ */
+public final class AuctionEventCodec {
+
+    public static final byte VERSION = 1;
+
+    // version, type, auctionId, previous status, status, occurredAt, category length, price scale
+    private static final int FIXED_SIZE = 1 + 1 + 8 + 1 + 1 + 8 + 2 + 1;
+    private static final int PRICE_SIZE = 8;
+
+    private static final AuctionEventType[] TYPES = AuctionEventType.values();
+    private static final AuctionStatus[] STATUSES = AuctionStatus.values();
+
+    private AuctionEventCodec() {}
+
+    public static byte[] encode(AuctionEvent event) {
+        byte[] category = event.getCategory() != null
+                ? event.getCategory().getBytes(StandardCharsets.UTF_8) : null;
+        BigDecimal price = event.getCurrentPrice();
+        if (price != null && (price.scale() < 0 || price.scale() > Byte.MAX_VALUE)) {
+            price = price.setScale(Math.max(0, Math.min(price.scale(), Byte.MAX_VALUE)));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + (category != null ? category.length : 0)
+                + (price != null ? PRICE_SIZE : 0));
+        buffer.put(VERSION);
+        buffer.put((byte) event.getType().ordinal());
+        buffer.putLong(event.getAuctionId());
+        buffer.put((byte) (event.getPreviousStatus() != null ? event.getPreviousStatus().ordinal() : -1));
+        buffer.put((byte) event.getStatus().ordinal());
+        buffer.putLong(event.getOccurredAt().getTime());
+        if (category != null) {
+            buffer.putShort((short) category.length);
+            buffer.put(category);
+        } else {
+            buffer.putShort((short) -1);
+        }
+        if (price != null) {
+            buffer.put((byte) price.scale());
+            buffer.putLong(price.unscaledValue().longValueExact());
+        } else {
+            buffer.put((byte) -1);
+        }
+        return buffer.array();
+    }
+
+    public static AuctionEvent decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported auction event version: " + version);
+        }
+
+        AuctionEventType type = TYPES[buffer.get()];
+        long auctionId = buffer.getLong();
+        byte previous = buffer.get();
+        AuctionStatus status = STATUSES[buffer.get()];
+        Date occurredAt = new Date(buffer.getLong());
+        String category = null;
+        short categoryLength = buffer.getShort();
+        if (categoryLength >= 0) {
+            byte[] bytes = new byte[categoryLength];
+            buffer.get(bytes);
+            category = new String(bytes, StandardCharsets.UTF_8);
+        }
+        BigDecimal currentPrice = null;
+        byte scale = buffer.get();
+        if (scale >= 0) {
+            currentPrice = new BigDecimal(BigInteger.valueOf(buffer.getLong()), scale);
+        }
+        return new AuctionEvent(type, auctionId, category, previous >= 0 ? STATUSES[previous] : null,
+                status, currentPrice, occurredAt);
+    }
+}
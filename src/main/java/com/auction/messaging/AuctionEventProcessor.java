@@ -0,0 +1,87 @@
+package com.auction.messaging;
+
+import com.auction.entity.AuctionStatus;
+import com.auction.service.AuctionPushHub;
+import com.auction.session.AuctionExpiryScheduler;
+import com.auction.session.AuctionManagerSingleton;
+import com.auction.session.AuctionStartScheduler;
+import com.auction.session.BidMatchingEngine;
+import com.auction.session.ProxyBidRegistry;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+
+import java.util.logging.Logger;
+
+/**
+ * Applies auction lifecycle events to in-memory state, whichever transport delivered them.
+ */
+@Stateless
+public class AuctionEventProcessor {
+
+    private static final Logger logger = Logger.getLogger(AuctionEventProcessor.class.getName());
+
+    @EJB
+    private AuctionManagerSingleton auctionManager;
+
+    @EJB
+    private ProxyBidRegistry proxyBidRegistry;
+
+    @EJB
+    private BidMatchingEngine matchingEngine;
+
+    @EJB
+    private AuctionPushHub auctionPushHub;
+
+    @EJB
+    private AuctionExpiryScheduler expiryScheduler;
+
+    @EJB
+    private AuctionStartScheduler startScheduler;
+
+    public void process(AuctionEvent event) {
+        logger.fine("Processing auction event: " + event);
+
+        switch (event.getType()) {
+            case AUCTION_CREATED:
+                handleAuctionCreated(event);
+                break;
+            case AUCTION_STARTED:
+                handleAuctionStarted(event);
+                break;
+            case AUCTION_ENDED:
+            case AUCTION_CANCELLED:
+                handleAuctionClosed(event);
+                break;
+            default:
+                logger.warning("Unknown event type: " + event.getType());
+        }
+    }
+
+    private void handleAuctionCreated(AuctionEvent event) {
+        // Most auctions are created pending and counted when they start
+        if (event.getStatus() == AuctionStatus.ACTIVE) {
+            auctionManager.registerActiveAuction(event.getAuctionId(), event.getCategory(), 0,
+                    event.getCurrentPrice());
+            auctionPushHub.auctionStarted(event.getAuctionId());
+        }
+        logger.info("Handled auction creation for auction: " + event.getAuctionId());
+    }
+
+    private void handleAuctionStarted(AuctionEvent event) {
+        auctionManager.registerActiveAuction(event.getAuctionId(), event.getCategory(), 0,
+                event.getCurrentPrice());
+        auctionPushHub.auctionStarted(event.getAuctionId());
+        logger.info("Handled auction start for auction: " + event.getAuctionId());
+    }
+
+    private void handleAuctionClosed(AuctionEvent event) {
+        // Both calls are idempotent, so a redelivered event is harmless
+        auctionManager.unregisterActiveAuction(event.getAuctionId());
+        proxyBidRegistry.evict(event.getAuctionId());
+        matchingEngine.evictBook(event.getAuctionId());
+        expiryScheduler.cancel(event.getAuctionId());
+        startScheduler.cancel(event.getAuctionId());
+        auctionPushHub.auctionClosed(event.getAuctionId());
+        logger.info("Handled " + event.getType() + " for auction: " + event.getAuctionId());
+    }
+}
@@ -0,0 +1,8 @@
+package com.auction.messaging;
+
+public enum AuctionEventType {
+    AUCTION_CREATED,
+    AUCTION_STARTED,
+    AUCTION_ENDED,
+    AUCTION_CANCELLED
+}
@@ -0,0 +1,64 @@
+package com.auction.messaging;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * The net effect of one or more bids on an auction within a coalescing window.
+ */
+public class AuctionUpdate {
+
+    private final Long auctionId;
+    private final BigDecimal currentPrice;
+    private final int bidCountDelta;
+    private final String lastBidderName;
+    private final Date lastBidTime;
+
+    public AuctionUpdate(Long auctionId, BigDecimal currentPrice, int bidCountDelta,
+                         String lastBidderName, Date lastBidTime) {
+        this.auctionId = auctionId;
+        this.currentPrice = currentPrice;
+        this.bidCountDelta = bidCountDelta;
+        this.lastBidderName = lastBidderName;
+        this.lastBidTime = lastBidTime;
+    }
+
+    static AuctionUpdate of(BidMessage bidMessage) {
+        return new AuctionUpdate(bidMessage.getAuctionId(), bidMessage.getBidAmount(), 1,
+                bidMessage.getBidderName(), bidMessage.getBidTime());
+    }
+
+    /**
+     * Folds a later bid into this update. Accepted bids only ever raise the price, so the
+     * higher amount identifies the latest bid even if messages arrive out of order.
+     */
+    AuctionUpdate merge(BidMessage bidMessage) {
+        boolean newer = bidMessage.getBidAmount().compareTo(currentPrice) >= 0;
+        return new AuctionUpdate(auctionId,
+                newer ? bidMessage.getBidAmount() : currentPrice,
+                bidCountDelta + 1,
+                newer ? bidMessage.getBidderName() : lastBidderName,
+                newer ? bidMessage.getBidTime() : lastBidTime);
+    }
+
+    public Long getAuctionId() { return auctionId; }
+
+    public BigDecimal getCurrentPrice() { return currentPrice; }
+
+    public int getBidCountDelta() { return bidCountDelta; }
+
+    public String getLastBidderName() { return lastBidderName; }
+
+    public Date getLastBidTime() { return lastBidTime; }
+
+    @Override
+    public String toString() {
+        return "AuctionUpdate{" +
+                "auctionId=" + auctionId +
+                ", currentPrice=" + currentPrice +
+                ", bidCountDelta=" + bidCountDelta +
+                ", lastBidderName='" + lastBidderName + '\'' +
+                ", lastBidTime=" + lastBidTime +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.auction.messaging;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Compact binary encoding of {@link BidMessage} for notification payloads and JMS
+ * BytesMessage bodies, replacing Java serialization. Layout (big-endian): version byte,
+ * auctionId, unscaled amount, amount scale (byte), bidTime millis (-1 if absent), bidder
+ * name length (short, -1 if absent) and UTF-8 bytes. New fields must only ever be appended
+ * under a new version.
+ */
+public final class BidMessageCodec {
+
+    public static final byte VERSION = 1;
+
+    // version, auctionId, unscaled amount, scale, bidTime, name length
+    private static final int FIXED_SIZE = 1 + 8 + 8 + 1 + 8 + 2;
+
+    private BidMessageCodec() {}
+
+    public static byte[] encode(BidMessage bidMessage) {
+        byte[] name = bidMessage.getBidderName() != null
+                ? bidMessage.getBidderName().getBytes(StandardCharsets.UTF_8) : null;
+        if (name != null && name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Bidder name too long to encode");
+        }
+        BigDecimal amount = bidMessage.getBidAmount();
+        if (amount.scale() < 0 || amount.scale() > Byte.MAX_VALUE) {
+            amount = amount.setScale(Math.max(0, Math.min(amount.scale(), Byte.MAX_VALUE)));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + (name != null ? name.length : 0));
+        buffer.put(VERSION);
+        buffer.putLong(bidMessage.getAuctionId());
+        buffer.putLong(amount.unscaledValue().longValueExact());
+        buffer.put((byte) amount.scale());
+        buffer.putLong(bidMessage.getBidTime() != null ? bidMessage.getBidTime().getTime() : -1L);
+        if (name != null) {
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        } else {
+            buffer.putShort((short) -1);
+        }
+        return buffer.array();
+    }
+
+    public static BidMessage decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported bid message version: " + version);
+        }
+
+        BidMessage bidMessage = new BidMessage();
+        bidMessage.setAuctionId(buffer.getLong());
+        long unscaled = buffer.getLong();
+        bidMessage.setBidAmount(new BigDecimal(BigInteger.valueOf(unscaled), buffer.get()));
+        long bidTime = buffer.getLong();
+        bidMessage.setBidTime(bidTime >= 0 ? new Date(bidTime) : null);
+        short nameLength = buffer.getShort();
+        if (nameLength >= 0) {
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            bidMessage.setBidderName(new String(name, StandardCharsets.UTF_8));
+        }
+        return bidMessage;
+    }
+}
@@ -1,6 +1,5 @@
 package com.auction.messaging;
 
-import com.auction.session.AuctionManagerSingleton;
 import jakarta.ejb.*;
 import jakarta.jms.*;
 
@@ -10,10 +9,11 @@ import java.util.logging.Logger;
 @MessageDriven(
         activationConfig = {
                 @ActivationConfigProperty(propertyName = "destinationType", propertyValue = "javax.jms.Topic"),
-                @ActivationConfigProperty(propertyName = "destination", propertyValue = "java:comp/env/jms/BidTopic"),
+                @ActivationConfigProperty(propertyName = "destination", propertyValue = "java:/jms/topic/BidTopic"),
                 @ActivationConfigProperty(propertyName = "subscriptionDurability", propertyValue = "Durable"),
                 @ActivationConfigProperty(propertyName = "clientId", propertyValue = "BidNotificationClient"),
-                @ActivationConfigProperty(propertyName = "subscriptionName", propertyValue = "BidNotificationSubscription")
+                @ActivationConfigProperty(propertyName = "subscriptionName", propertyValue = "BidNotificationSubscription"),
+                @ActivationConfigProperty(propertyName = "resourceAdapter", propertyValue = "activemq-ra")
         }
 )
 public class BidNotificationMDB implements MessageListener {
@@ -21,12 +21,15 @@ public class BidNotificationMDB implements MessageListener {
     private static final Logger logger = Logger.getLogger(BidNotificationMDB.class.getName());
 
     @EJB
-    private AuctionManagerSingleton auctionManager;
+    private BidUpdateCoalescer updateCoalescer;
 
     @Override
     public void onMessage(Message message) {
         try {
-            if (message instanceof ObjectMessage) {
+            if (message instanceof BytesMessage) {
+                processBidNotification(BidMessageCodec.decode(message.getBody(byte[].class)));
+            } else if (message instanceof ObjectMessage) {
+                // Serialized messages may still be in flight from before the binary codec
                 ObjectMessage objMessage = (ObjectMessage) message;
                 Object messageBody = objMessage.getObject();
 
@@ -37,7 +40,7 @@ public class BidNotificationMDB implements MessageListener {
                     logger.warning("Received unexpected message type: " + messageBody.getClass().getName());
                 }
             } else {
-                logger.warning("Received non-ObjectMessage: " + message.getClass().getName());
+                logger.warning("Received unsupported message: " + message.getClass().getName());
             }
         } catch (JMSException e) {
             logger.severe("Error processing bid notification: " + e.getMessage());
@@ -47,24 +50,9 @@ public class BidNotificationMDB implements MessageListener {
     }
 
     private void processBidNotification(BidMessage bidMessage) {
-        try {
-            logger.info("Processing bid notification: " + bidMessage);
-
-            auctionManager.incrementBidCount(bidMessage.getAuctionId());
-
-            broadcastToWebClients(bidMessage);
-
-            logger.info("Bid notification processed successfully for auction: " + bidMessage.getAuctionId());
-
-        } catch (Exception e) {
-            logger.severe("Error processing bid notification: " + e.getMessage());
-            throw new RuntimeException("Failed to process bid notification", e);
-        }
-    }
-
-    private void broadcastToWebClients(BidMessage bidMessage) {
+        logger.fine("Processing bid notification: " + bidMessage);
 
-        logger.info("Broadcasting bid update to web clients for auction: " + bidMessage.getAuctionId() +
-                ", amount: " + bidMessage.getBidAmount());
+        // Counters and web clients are updated once per auction per coalescing window
+        updateCoalescer.offer(bidMessage);
     }
 }
@@ -0,0 +1,107 @@
+package com.auction.messaging;
+
+import com.auction.service.AuctionPushHub;
+import com.auction.service.AuctionStreamHub;
+import com.auction.session.AuctionManagerSingleton;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Collapses bursts of bid notifications into one update per auction per window. Each
+ * window's updates are applied to the shared counters and broadcast once, so the cost of
+ * a hot auction no longer grows with its bid rate.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class BidUpdateCoalescer {
+
+    private static final Logger logger = Logger.getLogger(BidUpdateCoalescer.class.getName());
+
+    private static final long WINDOW_MS = Long.getLong("auction.notify.coalesceWindowMs", 200L);
+
+    @EJB
+    private AuctionManagerSingleton auctionManager;
+
+    @EJB
+    private AuctionStreamHub auctionStreamHub;
+
+    @EJB
+    private AuctionPushHub auctionPushHub;
+
+    @Resource
+    private TimerService timerService;
+
+    private final ConcurrentHashMap<Long, AuctionUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        timerService.createIntervalTimer(WINDOW_MS, WINDOW_MS, new TimerConfig(null, false));
+    }
+
+    public void offer(BidMessage bidMessage) {
+        received.increment();
+        pending.compute(bidMessage.getAuctionId(),
+                (auctionId, update) -> update == null ? AuctionUpdate.of(bidMessage) : update.merge(bidMessage));
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void flush(Timer timer) {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Long auctionId : pending.keySet()) {
+                AuctionUpdate update = pending.remove(auctionId);
+                if (update == null) {
+                    continue;
+                }
+                try {
+                    auctionManager.recordBids(auctionId, update.getBidCountDelta(), update.getCurrentPrice());
+                    broadcastToWebClients(update);
+                    applied.increment();
+                } catch (Exception e) {
+                    logger.severe("Error applying bid update for auction " + auctionId + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getAppliedCount() {
+        return applied.sum();
+    }
+
+    /**
+     * Bid notifications received per update applied; 1.0 means nothing was coalesced.
+     */
+    public double getCoalescingRatio() {
+        long updates = applied.sum();
+        return updates > 0 ? (double) received.sum() / updates : 0.0;
+    }
+
+    public long getWindowMillis() {
+        return WINDOW_MS;
+    }
+
+    private void broadcastToWebClients(AuctionUpdate update) {
+        int bidCount = auctionManager.getBidCount(update.getAuctionId());
+        auctionStreamHub.publish(update, bidCount);
+        auctionPushHub.publish(update, bidCount);
+    }
+}
@@ -0,0 +1,101 @@
+package com.auction.messaging;
+
+import com.auction.entity.OutboxDestination;
+import com.auction.entity.OutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Delivers notifications inside the JVM: published events go into a lock-free ring buffer
+ * and one consumer thread feeds them, in order, to the same logic the message-driven
+ * beans run. Lets the whole bid-to-broadcast path run without a broker.
+ */
+@Singleton
+@Startup
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class InMemoryNotificationTransport implements NotificationTransport {
+
+    private static final Logger logger = Logger.getLogger(InMemoryNotificationTransport.class.getName());
+
+    private static final int CAPACITY = Integer.getInteger("auction.notify.ringCapacity", 65536);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @EJB
+    private BidUpdateCoalescer updateCoalescer;
+
+    @EJB
+    private AuctionEventProcessor auctionEventProcessor;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private final RingBuffer<OutboxEvent> ring = new RingBuffer<>(CAPACITY);
+    private volatile boolean running;
+    private Thread consumer;
+
+    @PostConstruct
+    public void initialize() {
+        if (!NotificationTransport.isInMemorySelected()) {
+            return;
+        }
+        running = true;
+        // A managed thread, so the beans it calls see the application's naming and class loader
+        consumer = threadFactory.newThread(this::consume);
+        consumer.setName("notification-consumer");
+        consumer.start();
+        logger.info("In-memory notification transport started with capacity " + ring.capacity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    @Override
+    public void publish(OutboxEvent event) throws NotificationException {
+        if (!running) {
+            throw new NotificationException("In-memory notification transport is not running");
+        }
+        if (!ring.offer(event)) {
+            throw new NotificationException("Notification ring buffer is full");
+        }
+    }
+
+    public int getDepth() {
+        return ring.size();
+    }
+
+    private void consume() {
+        long idleNanos = 1000;
+        while (running) {
+            OutboxEvent event = ring.poll();
+            if (event == null) {
+                // Back off gradually so an idle consumer costs next to nothing
+                LockSupport.parkNanos(idleNanos);
+                idleNanos = Math.min(idleNanos * 2, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+            idleNanos = 1000;
+            try {
+                if (event.getDestination() == OutboxDestination.BID_TOPIC) {
+                    updateCoalescer.offer(BidMessageCodec.decode(event.getPayload()));
+                } else {
+                    auctionEventProcessor.process(AuctionEventCodec.decode(event.getPayload()));
+                }
+            } catch (Exception e) {
+                logger.severe("Error delivering notification for auction " + event.getAuctionId() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.auction.messaging;
+
+import com.auction.entity.OutboxDestination;
+import com.auction.entity.OutboxEvent;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Queue;
+import jakarta.jms.Topic;
+
+/**
+ * Publishes bid updates to BidTopic and lifecycle events to AuctionEventQueue, where
+ * {@link BidNotificationMDB} and {@link AuctionEventMDB} consume them.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JmsNotificationTransport implements NotificationTransport {
+
+    @EJB
+    private JmsPublisher jmsPublisher;
+
+    @Resource(mappedName = "java:comp/env/jms/BidTopic")
+    private Topic bidTopic;
+
+    @Resource(mappedName = "java:comp/env/jms/AuctionEventQueue")
+    private Queue auctionEventQueue;
+
+    @Override
+    public void publish(OutboxEvent event) throws NotificationException {
+        try {
+            if (event.getDestination() == OutboxDestination.BID_TOPIC) {
+                jmsPublisher.publish(bidTopic, session -> {
+                    BytesMessage message = session.createBytesMessage();
+                    message.writeBytes(event.getPayload());
+                    message.setJMSType(event.getMessageType());
+                    message.setStringProperty("auctionId", event.getAuctionId().toString());
+                    return message;
+                });
+            } else {
+                // Properties are kept for selectors and monitoring; consumers decode the body
+                jmsPublisher.publish(auctionEventQueue, session -> {
+                    BytesMessage message = session.createBytesMessage();
+                    message.writeBytes(event.getPayload());
+                    message.setJMSType(event.getMessageType());
+                    message.setStringProperty("eventType", event.getMessageType());
+                    message.setLongProperty("auctionId", event.getAuctionId());
+                    if (event.getCategory() != null) {
+                        message.setStringProperty("category", event.getCategory());
+                    }
+                    return message;
+                });
+            }
+        } catch (JMSException e) {
+            throw new NotificationException("Unable to publish to JMS: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.auction.messaging;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.jms.*;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Shared JMS producer facility. The default connection factory is the container's pooled,
+ * JCA-managed one, so each publish borrows a connection from that pool and returns it on
+ * close instead of keeping its own: a second pool on top would hold managed connections
+ * across transactions and keep them from being enlisted and recovered by the container.
+ * A failed send is retried once on a fresh connection from the pool.
+ * All application code that publishes JMS messages should go through this bean.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JmsPublisher {
+
+    private static final Logger logger = Logger.getLogger(JmsPublisher.class.getName());
+
+    /**
+     * Builds the message to send using the publishing session.
+     */
+    public interface MessageCreator {
+        Message create(Session session) throws JMSException;
+    }
+
+    @Resource(mappedName = "java:comp/DefaultJMSConnectionFactory")
+    private ConnectionFactory connectionFactory;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    public void publish(Destination destination, MessageCreator creator) throws JMSException {
+        try {
+            send(destination, creator);
+        } catch (JMSException e) {
+            logger.warning("JMS send failed, retrying with a fresh connection: " + e.getMessage());
+            retries.increment();
+            send(destination, creator);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    private void send(Destination destination, MessageCreator creator) throws JMSException {
+        // Closing hands the connection back to the pool; the session and producer close with it
+        try (Connection connection = connectionFactory.createConnection()) {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(destination);
+            producer.send(creator.create(session));
+        }
+        published.increment();
+    }
+}
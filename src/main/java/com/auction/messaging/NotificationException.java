@@ -0,0 +1,17 @@
+package com.auction.messaging;
+
+/**
+ * Thrown when a notification transport could not accept a message. The caller keeps the
+ * message and retries it later.
+ */
+public class NotificationException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public NotificationException(String message) {
+        super(message);
+    }
+
+    public NotificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
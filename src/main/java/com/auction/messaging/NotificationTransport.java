@@ -0,0 +1,24 @@
+package com.auction.messaging;
+
+import com.auction.entity.OutboxEvent;
+
+/**
+ * Carries committed bid updates and lifecycle events from the outbox to their consumers.
+ * The implementation is chosen with the auction.notify.transport system property:
+ * "jms" (the default) goes through the broker and the message-driven beans, "memory"
+ * hands events to the consumers through an in-process ring buffer. A war built with the
+ * memory-transport Maven profile leaves out the JMS beans, so it deploys without a broker.
+ */
+public interface NotificationTransport {
+
+    String TRANSPORT_PROPERTY = "auction.notify.transport";
+
+    /**
+     * Publishes the event. Events must reach consumers in the order they are published.
+     */
+    void publish(OutboxEvent event) throws NotificationException;
+
+    static boolean isInMemorySelected() {
+        return "memory".equalsIgnoreCase(System.getProperty(TRANSPORT_PROPERTY, "jms"));
+    }
+}
@@ -0,0 +1,445 @@
+package com.auction.service;
+
+import com.auction.entity.Auction;
+import com.auction.entity.AuctionStatus;
+import com.auction.messaging.AuctionUpdate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.websocket.Session;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Pushes auction changes to WebSocket clients that watch many auctions at once, either by
+ * id or by category. Updates are merged per connection and auction until the next frame,
+ * and frames carry only the fields that changed since the client last saw the auction.
+ * Frames are sent on a fixed tick, which caps the frame rate of every connection; a
+ * connection whose previous frame is still in flight skips the tick and its updates
+ * keep merging.
+ * <p>
+ * The category and end time of each active auction are cached from lifecycle events, so
+ * publishing never queries the database, and dropped again when the auction closes. A
+ * connection tracks a bounded number of auctions reached through its categories; once
+ * full, further auctions in those categories are not pushed to it until some close.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuctionPushHub {
+
+    private static final Logger logger = Logger.getLogger(AuctionPushHub.class.getName());
+
+    private static final int MAX_FRAMES_PER_SECOND = Integer.getInteger("auction.ws.maxFramesPerSecond", 4);
+    private static final int MAX_CONNECTIONS = Integer.getInteger("auction.ws.maxConnections", 20000);
+    private static final int MAX_AUCTIONS_PER_CONNECTION = Integer.getInteger("auction.ws.maxAuctionsPerConnection", 200);
+    private static final int MAX_CATEGORIES_PER_CONNECTION = Integer.getInteger("auction.ws.maxCategoriesPerConnection", 20);
+    private static final int MAX_CATEGORY_AUCTIONS_PER_CONNECTION =
+            Integer.getInteger("auction.ws.maxCategoryAuctionsPerConnection", 1000);
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    @Resource
+    private TimerService timerService;
+
+    private final ConcurrentHashMap<String, PushConnection> connections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<PushConnection>> auctionWatchers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<PushConnection>> categoryWatchers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AuctionInfo> auctionInfo = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder ticksSkipped = new LongAdder();
+    private final LongAdder categoryUpdatesDropped = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> active = em.createQuery(
+                "SELECT a.auctionId, a.category, a.endTime FROM Auction a WHERE a.status = :activeStatus")
+                .setParameter("activeStatus", AuctionStatus.ACTIVE)
+                .getResultList();
+        for (Object[] row : active) {
+            auctionInfo.put((Long) row[0], new AuctionInfo((String) row[1], (Date) row[2]));
+        }
+
+        long interval = Math.max(1, 1000 / Math.max(1, MAX_FRAMES_PER_SECOND));
+        timerService.createIntervalTimer(interval, interval, new TimerConfig(null, false));
+    }
+
+    public boolean open(Session session) {
+        if (connections.size() >= MAX_CONNECTIONS) {
+            return false;
+        }
+        connections.put(session.getId(), new PushConnection(session));
+        return true;
+    }
+
+    public void close(Session session) {
+        PushConnection connection = connections.remove(session.getId());
+        if (connection == null) {
+            return;
+        }
+        for (Long auctionId : connection.auctionIds) {
+            removeWatcher(auctionWatchers, auctionId, connection);
+        }
+        for (String category : connection.categories) {
+            removeWatcher(categoryWatchers, category, connection);
+        }
+    }
+
+    /**
+     * Watches the given auctions and queues their current state as the client's baseline.
+     */
+    public void subscribeAuctions(Session session, Collection<Long> auctionIds) {
+        PushConnection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        if (connection.auctionIds.size() + auctionIds.size() > MAX_AUCTIONS_PER_CONNECTION) {
+            throw new IllegalArgumentException("At most " + MAX_AUCTIONS_PER_CONNECTION + " auctions per connection");
+        }
+        for (Long auctionId : auctionIds) {
+            Auction auction = em.find(Auction.class, auctionId);
+            if (auction == null) {
+                continue;
+            }
+            if (auction.getStatus() == AuctionStatus.ACTIVE) {
+                auctionInfo.putIfAbsent(auctionId, new AuctionInfo(auction.getCategory(), auction.getEndTime()));
+            }
+            if (connection.auctionIds.add(auctionId)) {
+                addWatcher(auctionWatchers, auctionId, connection);
+            }
+            connection.pending.put(auctionId,
+                    new AuctionState(auction.getCurrentPrice(), auction.getBidCount(), auction.getEndTime()));
+        }
+    }
+
+    public void subscribeCategory(Session session, String category) {
+        PushConnection connection = connections.get(session.getId());
+        if (connection == null || connection.categories.contains(category)) {
+            return;
+        }
+        if (connection.categories.size() >= MAX_CATEGORIES_PER_CONNECTION) {
+            throw new IllegalArgumentException("At most " + MAX_CATEGORIES_PER_CONNECTION + " categories per connection");
+        }
+        if (connection.categories.add(category)) {
+            addWatcher(categoryWatchers, category, connection);
+        }
+    }
+
+    public void unsubscribeAuctions(Session session, Collection<Long> auctionIds) {
+        PushConnection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        for (Long auctionId : auctionIds) {
+            if (connection.auctionIds.remove(auctionId)) {
+                removeWatcher(auctionWatchers, auctionId, connection);
+            }
+            if (!connection.categoryAuctionIds.contains(auctionId)) {
+                connection.forget(auctionId);
+            }
+        }
+    }
+
+    public void unsubscribeCategory(Session session, String category) {
+        PushConnection connection = connections.get(session.getId());
+        if (connection == null || !connection.categories.remove(category)) {
+            return;
+        }
+        removeWatcher(categoryWatchers, category, connection);
+        for (Long auctionId : connection.categoryAuctionIds) {
+            AuctionInfo info = auctionInfo.get(auctionId);
+            if (info == null || !connection.categories.contains(info.category)) {
+                connection.categoryAuctionIds.remove(auctionId);
+                if (!connection.auctionIds.contains(auctionId)) {
+                    connection.forget(auctionId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches an auction that became active, so bids on it can reach category watchers.
+     * Runs on the lifecycle event path, which is the only place the cache is filled from.
+     */
+    public void auctionStarted(Long auctionId) {
+        Auction auction = em.find(Auction.class, auctionId);
+        if (auction != null && auction.getStatus() == AuctionStatus.ACTIVE) {
+            auctionInfo.put(auctionId, new AuctionInfo(auction.getCategory(), auction.getEndTime()));
+        }
+    }
+
+    /**
+     * Drops what is held for an auction that ended or was cancelled. Connections that only
+     * saw it through a category forget it; explicit subscribers keep their last state until
+     * they unsubscribe.
+     */
+    public void auctionClosed(Long auctionId) {
+        AuctionInfo info = auctionInfo.remove(auctionId);
+        Set<PushConnection> byCategory = info != null ? categoryWatchers.get(info.category) : null;
+        if (byCategory == null) {
+            return;
+        }
+        for (PushConnection connection : byCategory) {
+            if (connection.categoryAuctionIds.remove(auctionId) && !connection.auctionIds.contains(auctionId)) {
+                connection.forget(auctionId);
+            }
+        }
+    }
+
+    public void publish(AuctionUpdate update, int bidCount) {
+        Long auctionId = update.getAuctionId();
+        Set<PushConnection> byId = auctionWatchers.get(auctionId);
+        if (byId == null && categoryWatchers.isEmpty()) {
+            return;
+        }
+
+        AuctionInfo info = auctionInfo.get(auctionId);
+        Set<PushConnection> byCategory = info != null ? categoryWatchers.get(info.category) : null;
+        if (byId == null && byCategory == null) {
+            return;
+        }
+
+        AuctionState state = new AuctionState(update.getCurrentPrice(), bidCount, info != null ? info.endTime : null);
+        if (byId != null) {
+            for (PushConnection connection : byId) {
+                connection.pending.put(auctionId, state);
+            }
+        }
+        if (byCategory != null) {
+            for (PushConnection connection : byCategory) {
+                connection.offerCategoryUpdate(auctionId, state);
+            }
+        }
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void sendFrames(Timer timer) {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (PushConnection connection : connections.values()) {
+                connection.flush();
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * Re-queues auctions whose time-remaining bucket has moved on since the client last
+     * saw them, so countdowns advance even when nobody bids.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*/10", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void refreshTimeBuckets() {
+        long now = System.currentTimeMillis();
+        for (PushConnection connection : connections.values()) {
+            for (Map.Entry<Long, SentState> entry : connection.lastSent.entrySet()) {
+                SentState sent = entry.getValue();
+                if (sent.state.endTime != null && !timeBucket(sent.state.endTime, now).equals(sent.bucket)) {
+                    connection.pending.putIfAbsent(entry.getKey(), sent.state);
+                }
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    public long getTicksSkipped() {
+        return ticksSkipped.sum();
+    }
+
+    public long getCategoryUpdatesDropped() {
+        return categoryUpdatesDropped.sum();
+    }
+
+    /**
+     * Adds and removes watchers inside the map's compute, so a watcher is never added to a
+     * set that is being dropped for being empty.
+     */
+    private static <K> void addWatcher(ConcurrentHashMap<K, Set<PushConnection>> watchers, K key,
+                                       PushConnection connection) {
+        watchers.compute(key, (k, set) -> {
+            Set<PushConnection> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+    }
+
+    private static <K> void removeWatcher(ConcurrentHashMap<K, Set<PushConnection>> watchers, K key,
+                                          PushConnection connection) {
+        watchers.computeIfPresent(key, (k, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    static String timeBucket(Date endTime, long now) {
+        long remaining = endTime.getTime() - now;
+        if (remaining <= 0) {
+            return "ended";
+        } else if (remaining < 60_000L) {
+            return "<1m";
+        } else if (remaining < 600_000L) {
+            return "<10m";
+        } else if (remaining < 3_600_000L) {
+            return "<1h";
+        } else if (remaining < 86_400_000L) {
+            return "<1d";
+        }
+        return ">1d";
+    }
+
+    private static final class AuctionInfo {
+        private final String category;
+        private final Date endTime;
+
+        AuctionInfo(String category, Date endTime) {
+            this.category = category;
+            this.endTime = endTime;
+        }
+    }
+
+    private static final class AuctionState {
+        private final BigDecimal price;
+        private final int bidCount;
+        private final Date endTime;
+
+        AuctionState(BigDecimal price, int bidCount, Date endTime) {
+            this.price = price;
+            this.bidCount = bidCount;
+            this.endTime = endTime;
+        }
+    }
+
+    private static final class SentState {
+        private final AuctionState state;
+        private final String bucket;
+
+        SentState(AuctionState state, String bucket) {
+            this.state = state;
+            this.bucket = bucket;
+        }
+    }
+
+    private final class PushConnection {
+        private final Session session;
+        private final Set<Long> auctionIds = ConcurrentHashMap.newKeySet();
+        private final Set<String> categories = ConcurrentHashMap.newKeySet();
+        // Auctions this connection receives only through a category subscription
+        private final Set<Long> categoryAuctionIds = ConcurrentHashMap.newKeySet();
+        private final ConcurrentHashMap<Long, AuctionState> pending = new ConcurrentHashMap<>();
+        private final Map<Long, SentState> lastSent = new ConcurrentHashMap<>();
+        private final AtomicBoolean inFlight = new AtomicBoolean(false);
+
+        PushConnection(Session session) {
+            this.session = session;
+        }
+
+        void offerCategoryUpdate(Long auctionId, AuctionState state) {
+            if (!auctionIds.contains(auctionId) && !categoryAuctionIds.contains(auctionId)) {
+                if (categoryAuctionIds.size() >= MAX_CATEGORY_AUCTIONS_PER_CONNECTION) {
+                    categoryUpdatesDropped.increment();
+                    return;
+                }
+                categoryAuctionIds.add(auctionId);
+            }
+            pending.put(auctionId, state);
+        }
+
+        void forget(Long auctionId) {
+            pending.remove(auctionId);
+            lastSent.remove(auctionId);
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (!inFlight.compareAndSet(false, true)) {
+                ticksSkipped.increment();
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            JsonArrayBuilder deltas = Json.createArrayBuilder();
+            int count = 0;
+            Iterator<Map.Entry<Long, AuctionState>> iterator = pending.entrySet().iterator();
+            Map<Long, SentState> sentNow = new HashMap<>();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, AuctionState> entry = iterator.next();
+                AuctionState state = entry.getValue();
+                pending.remove(entry.getKey(), state);
+
+                String bucket = state.endTime != null ? timeBucket(state.endTime, now) : null;
+                SentState previous = lastSent.get(entry.getKey());
+                JsonObjectBuilder delta = Json.createObjectBuilder().add("id", entry.getKey());
+                boolean changed = false;
+                if (previous == null || previous.state.price.compareTo(state.price) != 0) {
+                    delta.add("p", state.price.toString());
+                    changed = true;
+                }
+                if (previous == null || previous.state.bidCount != state.bidCount) {
+                    delta.add("n", state.bidCount);
+                    changed = true;
+                }
+                if (bucket != null && (previous == null || !bucket.equals(previous.bucket))) {
+                    delta.add("t", bucket);
+                    changed = true;
+                }
+                if (changed) {
+                    deltas.add(delta);
+                    count++;
+                }
+                sentNow.put(entry.getKey(), new SentState(state, bucket));
+            }
+            lastSent.putAll(sentNow);
+
+            if (count == 0) {
+                inFlight.set(false);
+                return;
+            }
+            String frame = Json.createObjectBuilder().add("d", deltas).build().toString();
+            try {
+                session.getAsyncRemote().sendText(frame, result -> {
+                    inFlight.set(false);
+                    if (!result.isOK()) {
+                        logger.fine("Dropping WebSocket connection after failed send: " + result.getException());
+                        close(session);
+                    }
+                });
+                framesSent.increment();
+            } catch (RuntimeException e) {
+                inFlight.set(false);
+                close(session);
+            }
+        }
+    }
+}
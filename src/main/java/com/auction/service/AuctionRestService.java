@@ -3,17 +3,31 @@ package com.auction.service;
 import com.auction.entity.Auction;
 import com.auction.entity.Bid;
 import com.auction.entity.User;
+import com.auction.messaging.AuctionEvent;
+import com.auction.messaging.AuctionEventCodec;
+import com.auction.messaging.BidMessage;
+import com.auction.messaging.BidMessageCodec;
+import com.auction.messaging.BidUpdateCoalescer;
+import com.auction.session.AuctionEventLog;
 import com.auction.session.AuctionManagerSingleton;
+import com.auction.session.BidConflictException;
+import com.auction.session.CategoryStatistics;
+import com.auction.session.EventLog;
+import com.auction.session.IdempotencyStore;
+import com.auction.session.IdempotentResponse;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.json.Json;
 import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 
@@ -22,7 +36,6 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 
 @Path("/auctions")
@@ -33,6 +46,12 @@ public class AuctionRestService {
 
     private static final Logger logger = Logger.getLogger(AuctionRestService.class.getName());
     private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int MAX_EVENTS_PER_PAGE = 5000;
+
+    // Shared by every pooled instance so limits apply per client, not per instance
+    private static final BidRateLimiter rateLimiter = new BidRateLimiter();
 
     @EJB
     private AuctionService auctionService;
@@ -40,6 +59,24 @@ public class AuctionRestService {
     @EJB
     private AuctionManagerSingleton auctionManager;
 
+    @EJB
+    private IdempotencyStore idempotencyStore;
+
+    @EJB
+    private BidTicketService bidTicketService;
+
+    @EJB
+    private BidUpdateCoalescer bidUpdateCoalescer;
+
+    @EJB
+    private AuctionStreamHub auctionStreamHub;
+
+    @EJB
+    private AuctionPushHub auctionPushHub;
+
+    @EJB
+    private AuctionEventLog auctionEventLog;
+
     @Context
     private HttpServletRequest request;
 
@@ -69,7 +106,7 @@ public class AuctionRestService {
                         .add("currentPrice", auction.getCurrentPrice().toString())
                         .add("startingPrice", auction.getStartingPrice().toString())
                         .add("bidIncrement", auction.getBidIncrement().toString())
-                        .add("bidCount", auctionManager.getBidCount(auction.getAuctionId()))
+                        .add("bidCount", auction.getBidCount())
                         .add("status", auction.getStatus().toString())
                         .add("endTime", dateFormat.format(auction.getEndTime()))
                         .add("timeRemaining", calculateTimeRemaining(auction.getEndTime()))
@@ -128,6 +165,105 @@ public class AuctionRestService {
         }
     }
 
+    /**
+     * Live market statistics per category, maintained in memory from bid and lifecycle events
+     * GET /api/auctions/categories/stats
+     */
+    @GET
+    @Path("/categories/stats")
+    public Response getCategoryStatistics() {
+        try {
+            JsonArrayBuilder categoriesBuilder = Json.createArrayBuilder();
+            for (CategoryStatistics statistics : auctionManager.getCategoryStatistics().values()) {
+                categoriesBuilder.add(createCategoryStatisticsJson(statistics));
+            }
+
+            JsonObject response = Json.createObjectBuilder()
+                    .add("success", true)
+                    .add("categories", categoriesBuilder.build())
+                    .add("timestamp", dateFormat.format(new Date()))
+                    .build();
+
+            return Response.ok(response).build();
+
+        } catch (Exception e) {
+            logger.severe("Error retrieving category statistics: " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(createErrorResponse("Failed to retrieve category statistics"))
+                    .build();
+        }
+    }
+
+    /**
+     * Replay bid and lifecycle events from the local event log
+     * GET /api/auctions/events?since={offset}&limit={n}
+     */
+    @GET
+    @Path("/events")
+    public Response getEventsSince(@QueryParam("since") @DefaultValue("0") long since,
+                                   @QueryParam("limit") @DefaultValue("500") int limit) {
+        try {
+            if (!auctionEventLog.isAvailable()) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                        .entity(createErrorResponse("Event log is not available"))
+                        .build();
+            }
+
+            List<EventLog.Entry> entries = auctionEventLog.read(Math.max(0, since),
+                    Math.max(1, Math.min(limit, MAX_EVENTS_PER_PAGE)));
+            JsonArrayBuilder eventsBuilder = Json.createArrayBuilder();
+            // A stale or future offset resumes from the range the log actually holds
+            long nextOffset = Math.min(Math.max(since, auctionEventLog.getStartOffset()),
+                    auctionEventLog.getNextOffset());
+            for (EventLog.Entry entry : entries) {
+                eventsBuilder.add(createEventJson(entry));
+                nextOffset = entry.getOffset() + 1;
+            }
+
+            JsonObject response = Json.createObjectBuilder()
+                    .add("success", true)
+                    .add("startOffset", auctionEventLog.getStartOffset())
+                    .add("nextOffset", nextOffset)
+                    .add("events", eventsBuilder.build())
+                    .add("timestamp", dateFormat.format(new Date()))
+                    .build();
+
+            return Response.ok(response).build();
+
+        } catch (Exception e) {
+            logger.severe("Error reading event log: " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(createErrorResponse("Failed to read events"))
+                    .build();
+        }
+    }
+
+    /**
+     * Stream live updates for an auction as Server-Sent Events
+     * GET /api/auctions/{id}/stream
+     */
+    @GET
+    @Path("/{id}/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamAuctionUpdates(@PathParam("id") Long auctionId,
+                                     @Context SseEventSink eventSink,
+                                     @Context Sse sse) {
+        Auction auction = auctionService.getAuctionDetails(auctionId);
+        if (auction == null) {
+            throw new NotFoundException("Auction not found");
+        }
+
+        JsonObjectBuilder initialState = Json.createObjectBuilder()
+                .add("auctionId", auction.getAuctionId())
+                .add("currentPrice", auction.getCurrentPrice().toString())
+                .add("bidCount", auction.getBidCount())
+                .add("status", auction.getStatus().toString())
+                .add("endTime", auction.getEndTime().getTime());
+        if (!auctionStreamHub.subscribe(auctionId, eventSink, sse, initialState)) {
+            throw new ServiceUnavailableException("Too many open streams", 5L);
+        }
+    }
+
     /**
      * Get detailed auction information
      * GET /api/auctions/{id}
@@ -149,13 +285,11 @@ public class AuctionRestService {
 
             Bid highestBid = auctionService.getHighestBid(auctionId);
             BigDecimal minimumBid = auctionService.getMinimumBidAmount(auctionId);
-            List<Bid> recentBids = auctionService.getAuctionBids(auctionId);
+            List<Bid> recentBids = auctionService.getRecentBids(auctionId, 5);
 
             // Build recent bids array (last 5 bids)
             JsonArrayBuilder recentBidsBuilder = Json.createArrayBuilder();
-            int bidCount = Math.min(recentBids.size(), 5);
-            for (int i = 0; i < bidCount; i++) {
-                Bid bid = recentBids.get(i);
+            for (Bid bid : recentBids) {
                 JsonObject bidJson = Json.createObjectBuilder()
                         .add("amount", bid.getAmount().toString())
                         .add("bidder", bid.getBidder().getFirstName() + " " +
@@ -179,8 +313,12 @@ public class AuctionRestService {
                                     auction.getReservePrice().toString() : "Not set")
                             .add("bidIncrement", auction.getBidIncrement().toString())
                             .add("minimumBid", minimumBid.toString())
-                            .add("bidCount", auctionManager.getBidCount(auctionId))
-                            .add("totalBids", recentBids.size())
+                            .add("bidCount", auction.getBidCount())
+                            .add("totalBids", auction.getBidCount())
+                            .add("highestBid", auction.getHighestBidAmount() != null ?
+                                    auction.getHighestBidAmount().toString() : "None")
+                            .add("lastBidTime", auction.getLastBidTime() != null ?
+                                    dateFormat.format(auction.getLastBidTime()) : "None")
                             .add("status", auction.getStatus().toString())
                             .add("startTime", dateFormat.format(auction.getStartTime()))
                             .add("endTime", dateFormat.format(auction.getEndTime()))
@@ -213,10 +351,68 @@ public class AuctionRestService {
     /**
      * Place a bid on an auction
      * POST /api/auctions/{id}/bids
+     * Retries carrying the same Idempotency-Key header get the original response.
+     * With "Prefer: respond-async" the bid is queued and a ticket is returned with 202.
      */
     @POST
     @Path("/{id}/bids")
-    public Response placeBid(@PathParam("id") Long auctionId, JsonObject bidData) {
+    public Response placeBid(@PathParam("id") Long auctionId,
+                             @HeaderParam("Idempotency-Key") String idempotencyKey,
+                             @HeaderParam("Prefer") String prefer,
+                             JsonObject bidData) {
+        // Shed excess load before any EJB is involved
+        Long limitedBidderId = bidData != null && bidData.containsKey("bidderId")
+                && bidData.get("bidderId").getValueType() == JsonValue.ValueType.NUMBER
+                ? bidData.getJsonNumber("bidderId").longValue() : null;
+        long retryAfter = rateLimiter.checkBid(limitedBidderId, request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return Response.status(TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(retryAfter))
+                    .entity(createErrorResponse("Too many bids, please slow down"))
+                    .build();
+        }
+
+        boolean async = prefer != null && prefer.contains("respond-async");
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return processBid(auctionId, bidData, async);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(createErrorResponse("Idempotency-Key must not exceed " +
+                            MAX_IDEMPOTENCY_KEY_LENGTH + " characters"))
+                    .build();
+        }
+
+        IdempotentResponse previous = idempotencyStore.begin(auctionId, idempotencyKey);
+        if (previous != null) {
+            if (previous.isInFlight()) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity(createErrorResponse("A request with this Idempotency-Key is still being processed"))
+                        .build();
+            }
+            return Response.status(previous.getStatusCode())
+                    .entity(previous.getBody())
+                    .header("Idempotent-Replayed", "true")
+                    .build();
+        }
+
+        Response response = null;
+        try {
+            response = processBid(auctionId, bidData, async);
+            return response;
+        } finally {
+            // Only final outcomes and issued tickets are replayed; conflicts and server errors may succeed on retry
+            int status = response != null ? response.getStatus() : 0;
+            if (status == Response.Status.CREATED.getStatusCode() || status == Response.Status.ACCEPTED.getStatusCode()
+                    || status == Response.Status.BAD_REQUEST.getStatusCode()) {
+                idempotencyStore.complete(auctionId, idempotencyKey, status, response.getEntity().toString());
+            } else {
+                idempotencyStore.release(auctionId, idempotencyKey);
+            }
+        }
+    }
+
+    private Response processBid(Long auctionId, JsonObject bidData, boolean async) {
         try {
             // Validate input data
             if (!bidData.containsKey("bidderId") || !bidData.containsKey("amount")) {
@@ -237,13 +433,16 @@ public class AuctionRestService {
                         .build();
             }
 
+            if (async) {
+                return submitBidTicket(auctionId, bidderId, amount, ipAddress);
+            }
+
             Bid bid = auctionService.placeBid(auctionId, bidderId, amount, ipAddress);
 
             JsonObject response = Json.createObjectBuilder()
                     .add("success", true)
                     .add("message", "Bid placed successfully")
-                    .add("bid", Json.createObjectBuilder()
-                            .add("id", bid.getBidId())
+                    .add("bid", createBidIdBuilder(bid)
                             .add("auctionId", bid.getAuction().getAuctionId())
                             .add("amount", bid.getAmount().toString())
                             .add("bidTime", dateFormat.format(bid.getBidTime()))
@@ -253,7 +452,7 @@ public class AuctionRestService {
                             .build())
                     .add("auctionUpdate", Json.createObjectBuilder()
                             .add("newCurrentPrice", bid.getAuction().getCurrentPrice().toString())
-                            .add("newBidCount", auctionManager.getBidCount(auctionId))
+                            .add("newBidCount", bid.getAuction().getBidCount())
                             .add("nextMinimumBid", auctionService.getMinimumBidAmount(auctionId).toString())
                             .build())
                     .add("timestamp", dateFormat.format(new Date()))
@@ -261,6 +460,15 @@ public class AuctionRestService {
 
             return Response.status(Response.Status.CREATED).entity(response).build();
 
+        } catch (BidConflictException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Json.createObjectBuilder()
+                            .add("success", false)
+                            .add("error", e.getMessage())
+                            .add("retryable", true)
+                            .add("timestamp", dateFormat.format(new Date()))
+                            .build())
+                    .build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(Json.createObjectBuilder()
@@ -285,6 +493,116 @@ public class AuctionRestService {
         }
     }
 
+    private Response submitBidTicket(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        try {
+            BidTicket ticket = bidTicketService.submit(auctionId, bidderId, amount, ipAddress);
+
+            JsonObject response = Json.createObjectBuilder()
+                    .add("success", true)
+                    .add("message", "Bid accepted for processing")
+                    .add("ticket", createTicketJson(ticket))
+                    .add("timestamp", dateFormat.format(new Date()))
+                    .build();
+
+            return Response.status(Response.Status.ACCEPTED)
+                    .header("Location", "/api/auctions/bids/tickets/" + ticket.getTicketId())
+                    .entity(response)
+                    .build();
+
+        } catch (BidQueueFullException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .entity(createErrorResponse(e.getMessage()))
+                    .build();
+        }
+    }
+
+    /**
+     * Get the outcome of an asynchronously submitted bid
+     * GET /api/auctions/bids/tickets/{ticketId}
+     */
+    @GET
+    @Path("/bids/tickets/{ticketId}")
+    public Response getBidTicket(@PathParam("ticketId") String ticketId) {
+        BidTicket ticket = bidTicketService.getTicket(ticketId);
+        if (ticket == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(createErrorResponse("Ticket not found or expired"))
+                    .build();
+        }
+
+        JsonObject response = Json.createObjectBuilder()
+                .add("success", true)
+                .add("ticket", createTicketJson(ticket))
+                .add("timestamp", dateFormat.format(new Date()))
+                .build();
+
+        return Response.ok(response).build();
+    }
+
+    /**
+     * Register a proxy (maximum) bid on an auction
+     * POST /api/auctions/{id}/proxy-bids
+     */
+    @POST
+    @Path("/{id}/proxy-bids")
+    public Response registerProxyBid(@PathParam("id") Long auctionId, JsonObject proxyData) {
+        try {
+            // Validate input data
+            if (!proxyData.containsKey("bidderId") || !proxyData.containsKey("maxAmount")) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse("Missing required fields: bidderId and maxAmount"))
+                        .build();
+            }
+
+            Long bidderId = Long.valueOf(proxyData.getInt("bidderId"));
+            BigDecimal maxAmount = new BigDecimal(proxyData.getString("maxAmount"));
+            String ipAddress = request.getRemoteAddr();
+
+            if (maxAmount.compareTo(BigDecimal.ZERO) <= 0) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse("Maximum amount must be positive"))
+                        .build();
+            }
+
+            Bid winningBid = auctionService.registerProxyBid(auctionId, bidderId, maxAmount, ipAddress);
+            boolean leading = winningBid != null && bidderId.equals(winningBid.getBidder().getUserId());
+
+            JsonObject response = Json.createObjectBuilder()
+                    .add("success", true)
+                    .add("message", leading ? "Proxy bid registered, you are the highest bidder"
+                            : "Proxy bid registered, but you have been outbid")
+                    .add("proxyBid", Json.createObjectBuilder()
+                            .add("auctionId", auctionId)
+                            .add("maxAmount", maxAmount.toString())
+                            .add("leading", leading)
+                            .build())
+                    .add("auctionUpdate", Json.createObjectBuilder()
+                            .add("currentPrice", winningBid != null ? winningBid.getAmount().toString() : "None")
+                            .add("nextMinimumBid", auctionService.getMinimumBidAmount(auctionId).toString())
+                            .build())
+                    .add("timestamp", dateFormat.format(new Date()))
+                    .build();
+
+            return Response.status(Response.Status.CREATED).entity(response).build();
+
+        } catch (BidConflictException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Json.createObjectBuilder()
+                            .add("success", false)
+                            .add("error", e.getMessage())
+                            .add("retryable", true)
+                            .add("timestamp", dateFormat.format(new Date()))
+                            .build())
+                    .build();
+        } catch (Exception e) {
+            logger.severe("Error registering proxy bid: " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(createErrorResponse("Failed to register proxy bid"))
+                    .build();
+        }
+    }
+
     /**
      * Get bid history for an auction
      * GET /api/auctions/{id}/bids
@@ -496,11 +814,9 @@ public class AuctionRestService {
     @Path("/system/status")
     public Response getSystemStatus() {
         try {
-            Map<String, Integer> categoryCounts = auctionManager.getAllCategoryCounts();
-
             JsonObjectBuilder categoryBuilder = Json.createObjectBuilder();
-            for (Map.Entry<String, Integer> entry : categoryCounts.entrySet()) {
-                categoryBuilder.add(entry.getKey(), entry.getValue());
+            for (CategoryStatistics statistics : auctionManager.getCategoryStatistics().values()) {
+                categoryBuilder.add(statistics.getCategory(), statistics.getActiveCount());
             }
 
             JsonObject response = Json.createObjectBuilder()
@@ -511,6 +827,44 @@ public class AuctionRestService {
                             .add("totalActiveBids", auctionManager.getTotalActiveBids())
                             .add("uptime", System.currentTimeMillis())
                             .build())
+                    .add("periodicMaintenance", Json.createObjectBuilder()
+                            .add("lastDurationMs", auctionManager.getLastMaintenanceDurationMs())
+                            .add("lastExpired", auctionManager.getLastMaintenanceExpired())
+                            .add("lastReconciled", auctionManager.getLastMaintenanceReconciled())
+                            .add("lastChunks", auctionManager.getLastMaintenanceChunks())
+                            .build())
+                    .add("bidNotifications", Json.createObjectBuilder()
+                            .add("received", bidUpdateCoalescer.getReceivedCount())
+                            .add("updatesApplied", bidUpdateCoalescer.getAppliedCount())
+                            .add("coalescingRatio", bidUpdateCoalescer.getCoalescingRatio())
+                            .add("windowMs", bidUpdateCoalescer.getWindowMillis())
+                            .build())
+                    .add("streams", Json.createObjectBuilder()
+                            .add("connections", auctionStreamHub.getConnectionCount())
+                            .add("published", auctionStreamHub.getPublishedCount())
+                            .add("downsampled", auctionStreamHub.getDownsampledCount())
+                            .add("dropped", auctionStreamHub.getDroppedCount())
+                            .build())
+                    .add("webSockets", Json.createObjectBuilder()
+                            .add("connections", auctionPushHub.getConnectionCount())
+                            .add("framesSent", auctionPushHub.getFramesSent())
+                            .add("ticksSkipped", auctionPushHub.getTicksSkipped())
+                            .build())
+                    .add("rateLimiting", Json.createObjectBuilder()
+                            .add("rejectedByBidder", rateLimiter.getRejectedByBidder())
+                            .add("rejectedByAddress", rateLimiter.getRejectedByAddress())
+                            .build())
+                    .add("asyncBids", Json.createObjectBuilder()
+                            .add("submitted", bidTicketService.getSubmittedCount())
+                            .add("queueDepth", bidTicketService.getQueueDepth())
+                            .add("rejectedWhenFull", bidTicketService.getRejectedWhenFullCount())
+                            .build())
+                    .add("idempotency", Json.createObjectBuilder()
+                            .add("cacheHits", idempotencyStore.getCacheHits())
+                            .add("persistentHits", idempotencyStore.getPersistentHits())
+                            .add("misses", idempotencyStore.getMisses())
+                            .add("cacheSize", idempotencyStore.getCacheSize())
+                            .build())
                     .add("statistics", Json.createObjectBuilder()
                             .add("categoryCounts", categoryBuilder.build())
                             .add("serverTime", dateFormat.format(new Date()))
@@ -590,7 +944,7 @@ public class AuctionRestService {
                 .add("title", auction.getTitle())
                 .add("category", auction.getCategory())
                 .add("currentPrice", auction.getCurrentPrice().toString())
-                .add("bidCount", auctionManager.getBidCount(auction.getAuctionId()))
+                .add("bidCount", auction.getBidCount())
                 .add("status", auction.getStatus().toString())
                 .add("endTime", dateFormat.format(auction.getEndTime()))
                 .add("timeRemaining", calculateTimeRemaining(auction.getEndTime()))
@@ -598,6 +952,81 @@ public class AuctionRestService {
                 .build();
     }
 
+    private JsonObject createTicketJson(BidTicket ticket) {
+        JsonObjectBuilder builder = Json.createObjectBuilder()
+                .add("id", ticket.getTicketId())
+                .add("auctionId", ticket.getAuctionId())
+                .add("amount", ticket.getAmount().toString())
+                .add("status", ticket.getStatus().toString())
+                .add("submittedTime", dateFormat.format(ticket.getSubmittedTime()));
+        if (ticket.getStatus() != BidTicket.Status.PENDING) {
+            builder.add("message", ticket.getMessage())
+                    .add("completedTime", dateFormat.format(ticket.getCompletedTime()));
+        }
+        if (ticket.getBidId() != null) {
+            builder.add("bidId", ticket.getBidId());
+        }
+        if (ticket.getBidStatus() != null) {
+            builder.add("bidStatus", ticket.getBidStatus());
+        }
+        return builder.build();
+    }
+
+    private JsonObjectBuilder createBidIdBuilder(Bid bid) {
+        // Bids accepted by the matching engine get their id once they are written behind
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        if (bid.getBidId() != null) {
+            builder.add("id", bid.getBidId());
+        } else {
+            builder.addNull("id");
+        }
+        return builder;
+    }
+
+    private JsonObject createCategoryStatisticsJson(CategoryStatistics statistics) {
+        BigDecimal minPrice = statistics.getMinPrice();
+        BigDecimal maxPrice = statistics.getMaxPrice();
+        BigDecimal meanPrice = statistics.getMeanPrice();
+        return Json.createObjectBuilder()
+                .add("category", statistics.getCategory())
+                .add("activeAuctions", statistics.getActiveCount())
+                .add("totalBids", statistics.getTotalBids())
+                .add("bidsPerMinute", statistics.getBidsPerMinute())
+                .add("minPrice", minPrice != null ? Json.createValue(minPrice.toString()) : JsonValue.NULL)
+                .add("maxPrice", maxPrice != null ? Json.createValue(maxPrice.toString()) : JsonValue.NULL)
+                .add("meanPrice", meanPrice != null ? Json.createValue(meanPrice.toString()) : JsonValue.NULL)
+                .build();
+    }
+
+    private JsonObject createEventJson(EventLog.Entry entry) {
+        JsonObjectBuilder builder = Json.createObjectBuilder().add("offset", entry.getOffset());
+        if (entry.getType() == AuctionEventLog.TYPE_BID_UPDATE) {
+            BidMessage bidMessage = BidMessageCodec.decode(entry.getPayload());
+            builder.add("type", "BID_UPDATE")
+                    .add("auctionId", bidMessage.getAuctionId())
+                    .add("amount", bidMessage.getBidAmount().toString());
+            if (bidMessage.getBidderName() != null) {
+                builder.add("bidder", bidMessage.getBidderName());
+            }
+            if (bidMessage.getBidTime() != null) {
+                builder.add("time", bidMessage.getBidTime().getTime());
+            }
+        } else {
+            AuctionEvent event = AuctionEventCodec.decode(entry.getPayload());
+            builder.add("type", event.getType().name())
+                    .add("auctionId", event.getAuctionId())
+                    .add("status", event.getStatus().name())
+                    .add("time", event.getOccurredAt().getTime());
+            if (event.getCategory() != null) {
+                builder.add("category", event.getCategory());
+            }
+            if (event.getCurrentPrice() != null) {
+                builder.add("currentPrice", event.getCurrentPrice().toString());
+            }
+        }
+        return builder.build();
+    }
+
     private JsonObject createErrorResponse(String errorMessage) {
         return Json.createObjectBuilder()
                 .add("success", false)
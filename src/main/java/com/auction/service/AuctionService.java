@@ -14,10 +14,12 @@ public interface AuctionService {
     Auction createAuction(String title, String description, String category,
                          BigDecimal startingPrice, Date startTime, Date endTime, Long sellerId);
     Bid placeBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress);
+    Bid registerProxyBid(Long auctionId, Long bidderId, BigDecimal maxAmount, String ipAddress);
     List<Auction> getActiveAuctions();
     List<Auction> getAuctionsByCategory(String category);
     Auction getAuctionDetails(Long auctionId);
     List<Bid> getAuctionBids(Long auctionId);
+    List<Bid> getRecentBids(Long auctionId, int limit);
     Bid getHighestBid(Long auctionId);
     BigDecimal getMinimumBidAmount(Long auctionId);
     int getAuctionBidCount(Long auctionId);
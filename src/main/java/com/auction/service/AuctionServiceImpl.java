@@ -5,6 +5,7 @@ import com.auction.entity.Bid;
 import com.auction.entity.User;
 import com.auction.session.AuctionManagerSingleton;
 import com.auction.session.AuctionSessionBeanLocal;
+import com.auction.session.BidConflictException;
 import com.auction.session.BidSessionBeanLocal;
 import com.auction.session.UserSessionBeanLocal;
 import jakarta.ejb.*;
@@ -49,12 +50,10 @@ public class AuctionServiceImpl implements AuctionService {
             // Validate auction times
             validateAuctionTimes(startTime, endTime);
 
+            // Category counters follow the lifecycle events this publishes
             Auction auction = auctionSession.createAuction(title, description, category,
                     startingPrice, startTime, endTime, seller);
 
-            // Update category counter
-            auctionManager.incrementCategoryCounter(category);
-
             logger.info("Auction created successfully: " + auction.getAuctionId());
             return auction;
 
@@ -77,12 +76,35 @@ public class AuctionServiceImpl implements AuctionService {
             logger.info("Bid placed successfully: " + amount + " on auction " + auctionId + " by user " + bidderId);
             return bid;
 
+        } catch (BidConflictException e) {
+            throw e;
         } catch (Exception e) {
             logger.severe("Error placing bid: " + e.getMessage());
             throw new RuntimeException("Failed to place bid", e);
         }
     }
 
+    @Override
+    public Bid registerProxyBid(Long auctionId, Long bidderId, BigDecimal maxAmount, String ipAddress) {
+        try {
+            // Check system maintenance
+            if (auctionManager.isSystemMaintenance()) {
+                throw new IllegalStateException("System is under maintenance. Please try again later.");
+            }
+
+            Bid winningBid = bidSession.registerProxyBid(auctionId, bidderId, maxAmount, ipAddress);
+
+            logger.info("Proxy bid registered: max " + maxAmount + " on auction " + auctionId + " by user " + bidderId);
+            return winningBid;
+
+        } catch (BidConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.severe("Error registering proxy bid: " + e.getMessage());
+            throw new RuntimeException("Failed to register proxy bid", e);
+        }
+    }
+
     @Override
     public List<Auction> getActiveAuctions() {
         return auctionSession.findActiveAuctions();
@@ -103,6 +125,11 @@ public class AuctionServiceImpl implements AuctionService {
         return bidSession.findBidsByAuction(auctionId);
     }
 
+    @Override
+    public List<Bid> getRecentBids(Long auctionId, int limit) {
+        return bidSession.findRecentBids(auctionId, limit);
+    }
+
     @Override
     public Bid getHighestBid(Long auctionId) {
         return bidSession.findHighestBid(auctionId);
@@ -115,7 +142,7 @@ public class AuctionServiceImpl implements AuctionService {
 
     @Override
     public int getAuctionBidCount(Long auctionId) {
-        return auctionManager.getBidCount(auctionId);
+        return auctionSession.findBidCount(auctionId);
     }
 
     @Override
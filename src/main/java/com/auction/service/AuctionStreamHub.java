@@ -0,0 +1,255 @@
+package com.auction.service;
+
+import com.auction.messaging.AuctionUpdate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Fans auction updates out to Server-Sent Events subscribers, keyed by auction id. Each
+ * update is rendered once and handed to every subscriber of the auction. A subscriber holds
+ * at most one undelivered event: a newer update replaces it, so slow clients are
+ * downsampled to the latest state, and clients that make no progress for too long are
+ * disconnected. Publishing never waits on a client's socket.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuctionStreamHub {
+
+    private static final Logger logger = Logger.getLogger(AuctionStreamHub.class.getName());
+
+    private static final int MAX_CONNECTIONS = Integer.getInteger("auction.sse.maxConnections", 50000);
+    private static final int SENDER_THREADS = Integer.getInteger("auction.sse.senderThreads", 4);
+    private static final long MAX_STALL_MS = Long.getLong("auction.sse.maxStallSeconds", 30L) * 1000;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder downsampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Sse sse;
+    private ExecutorService senders;
+
+    // Container-managed, so senders run with the application's naming and class loader
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @PostConstruct
+    public void initialize() {
+        // Each subscriber has at most one task queued, so the queue is bounded by connections
+        senders = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        subscribers.clear();
+    }
+
+    /**
+     * Registers the sink for updates on the auction and sends it the initial state.
+     * Returns false if the connection limit has been reached.
+     */
+    public boolean subscribe(Long auctionId, SseEventSink sink, Sse sse, JsonObjectBuilder initialState) {
+        if (connections.incrementAndGet() > MAX_CONNECTIONS) {
+            connections.decrementAndGet();
+            return false;
+        }
+        this.sse = sse;
+
+        Subscriber subscriber = new Subscriber(auctionId, sink);
+        // Atomic with unsubscribe's removal of an empty set, so the set added to stays in the map
+        subscribers.compute(auctionId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        subscriber.offer(sse.newEventBuilder()
+                .name("auction-state")
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(String.class, initialState.build().toString())
+                .build());
+        return true;
+    }
+
+    public void publish(AuctionUpdate update, int bidCount) {
+        Set<Subscriber> auctionSubscribers = subscribers.get(update.getAuctionId());
+        Sse current = sse;
+        if (auctionSubscribers == null || auctionSubscribers.isEmpty() || current == null) {
+            return;
+        }
+
+        JsonObjectBuilder data = Json.createObjectBuilder()
+                .add("auctionId", update.getAuctionId())
+                .add("currentPrice", update.getCurrentPrice().toString())
+                .add("bidCount", bidCount)
+                .add("newBids", update.getBidCountDelta());
+        if (update.getLastBidderName() != null) {
+            data.add("lastBidder", update.getLastBidderName());
+        }
+        if (update.getLastBidTime() != null) {
+            data.add("lastBidTime", update.getLastBidTime().getTime());
+        }
+
+        OutboundSseEvent event = current.newEventBuilder()
+                .name("auction-update")
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(String.class, data.build().toString())
+                .build();
+        for (Subscriber subscriber : auctionSubscribers) {
+            subscriber.offer(event);
+        }
+        published.increment();
+    }
+
+    /**
+     * Sends a comment to every subscriber with nothing pending, which keeps idle
+     * connections open through proxies and detects clients that have gone away.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*/15", persistent = false)
+    public void sendHeartbeats() {
+        Sse current = sse;
+        if (current == null) {
+            return;
+        }
+        OutboundSseEvent heartbeat = current.newEventBuilder().comment("heartbeat").build();
+        for (Set<Subscriber> auctionSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : auctionSubscribers) {
+                subscriber.offerIfIdle(heartbeat);
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDownsampledCount() {
+        return downsampled.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.auctionId, (id, set) -> {
+            removed.set(set.remove(subscriber));
+            return set.isEmpty() ? null : set;
+        });
+        if (removed.get()) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private final class Subscriber {
+        private final Long auctionId;
+        private final SseEventSink sink;
+        private final AtomicReference<OutboundSseEvent> latest = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile long lastProgress = System.currentTimeMillis();
+
+        Subscriber(Long auctionId, SseEventSink sink) {
+            this.auctionId = auctionId;
+            this.sink = sink;
+        }
+
+        void offer(OutboundSseEvent event) {
+            if (latest.getAndSet(event) != null) {
+                downsampled.increment();
+                if (System.currentTimeMillis() - lastProgress > MAX_STALL_MS) {
+                    dropped.increment();
+                    logger.fine("Dropping stalled stream subscriber for auction " + auctionId);
+                    close();
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        void offerIfIdle(OutboundSseEvent event) {
+            if (latest.compareAndSet(null, event)) {
+                schedule();
+            } else if (System.currentTimeMillis() - lastProgress > MAX_STALL_MS) {
+                dropped.increment();
+                close();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::sendNext);
+                } catch (RuntimeException e) {
+                    close();
+                }
+            }
+        }
+
+        private void sendNext() {
+            if (sink.isClosed()) {
+                close();
+                return;
+            }
+            OutboundSseEvent event = latest.getAndSet(null);
+            if (event == null) {
+                scheduled.set(false);
+                // An event may have arrived after the check above
+                if (latest.get() != null) {
+                    schedule();
+                }
+                return;
+            }
+
+            try {
+                sink.send(event).whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        close();
+                    } else {
+                        lastProgress = System.currentTimeMillis();
+                        senders.execute(this::sendNext);
+                    }
+                });
+            } catch (RuntimeException e) {
+                close();
+            }
+        }
+
+        void close() {
+            unsubscribe(this);
+            try {
+                sink.close();
+            } catch (Exception e) {
+                logger.fine("Error closing event stream: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.auction.service;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Thrown when the asynchronous bid queue has no room left; the client should retry later.
+ */
+@ApplicationException
+public class BidQueueFullException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BidQueueFullException(String message) {
+        super(message);
+    }
+}
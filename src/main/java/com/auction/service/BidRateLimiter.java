@@ -0,0 +1,73 @@
+package com.auction.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how fast a single bidder and a single remote address may submit bids, and counts
+ * the requests it turns away.
+ */
+public class BidRateLimiter {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("auction.rateLimit.enabled", "true"));
+
+    private final TokenBucketLimiter bidderLimiter = new TokenBucketLimiter(
+            Double.parseDouble(System.getProperty("auction.rateLimit.bidder.perSecond", "5")),
+            Integer.getInteger("auction.rateLimit.bidder.burst", 10),
+            Integer.getInteger("auction.rateLimit.maxKeys", 100000),
+            64);
+
+    private final TokenBucketLimiter addressLimiter = new TokenBucketLimiter(
+            Double.parseDouble(System.getProperty("auction.rateLimit.ip.perSecond", "20")),
+            Integer.getInteger("auction.rateLimit.ip.burst", 40),
+            Integer.getInteger("auction.rateLimit.maxKeys", 100000),
+            64);
+
+    private final LongAdder rejectedByBidder = new LongAdder();
+    private final LongAdder rejectedByAddress = new LongAdder();
+
+    /**
+     * Returns 0 if the bid may proceed, otherwise the number of seconds the client should
+     * wait before retrying. The address is checked first so one client cannot drain other
+     * bidders' buckets by cycling bidder ids.
+     */
+    public long checkBid(Long bidderId, String remoteAddress) {
+        if (!ENABLED) {
+            return 0;
+        }
+
+        if (remoteAddress != null) {
+            long waitNanos = addressLimiter.tryAcquire(remoteAddress);
+            if (waitNanos > 0) {
+                rejectedByAddress.increment();
+                return toRetryAfterSeconds(waitNanos);
+            }
+        }
+
+        if (bidderId != null) {
+            long waitNanos = bidderLimiter.tryAcquire(bidderId);
+            if (waitNanos > 0) {
+                // The request is turned away, so it must not count against its address either
+                if (remoteAddress != null) {
+                    addressLimiter.refund(remoteAddress);
+                }
+                rejectedByBidder.increment();
+                return toRetryAfterSeconds(waitNanos);
+            }
+        }
+
+        return 0;
+    }
+
+    public long getRejectedByBidder() {
+        return rejectedByBidder.sum();
+    }
+
+    public long getRejectedByAddress() {
+        return rejectedByAddress.sum();
+    }
+
+    private long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.auction.service;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Tracks a bid submitted asynchronously until a worker has accepted or rejected it.
+ */
+public class BidTicket implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        PENDING,
+        ACCEPTED,
+        REJECTED
+    }
+
+    private final String ticketId;
+    private final Long auctionId;
+    private final Long bidderId;
+    private final BigDecimal amount;
+    private final Date submittedTime;
+    private volatile Status status = Status.PENDING;
+    private volatile Long bidId;
+    private volatile String bidStatus;
+    private volatile String message;
+    private volatile Date completedTime;
+
+    public BidTicket(String ticketId, Long auctionId, Long bidderId, BigDecimal amount) {
+        this.ticketId = ticketId;
+        this.auctionId = auctionId;
+        this.bidderId = bidderId;
+        this.amount = amount;
+        this.submittedTime = new Date();
+    }
+
+    void accept(Long bidId, String bidStatus) {
+        this.bidId = bidId;
+        this.bidStatus = bidStatus;
+        this.message = "Bid placed successfully";
+        this.completedTime = new Date();
+        this.status = Status.ACCEPTED;
+    }
+
+    void reject(String message) {
+        this.message = message;
+        this.completedTime = new Date();
+        this.status = Status.REJECTED;
+    }
+
+    public String getTicketId() { return ticketId; }
+    public Long getAuctionId() { return auctionId; }
+    public Long getBidderId() { return bidderId; }
+    public BigDecimal getAmount() { return amount; }
+    public Date getSubmittedTime() { return submittedTime; }
+    public Status getStatus() { return status; }
+    public Long getBidId() { return bidId; }
+    public String getBidStatus() { return bidStatus; }
+    public String getMessage() { return message; }
+    public Date getCompletedTime() { return completedTime; }
+}
@@ -0,0 +1,128 @@
+package com.auction.service;
+
+import com.auction.entity.Bid;
+import com.auction.session.BidConflictException;
+import com.auction.session.ExpiringCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Accepts bids without holding the request thread: each bid gets a ticket and is queued
+ * for a fixed pool of workers. The queue is bounded, so a bid storm is turned away at the
+ * door instead of piling up threads. Workers come from the container's managed thread
+ * factory, so they carry the application's naming, class loader and security context.
+ * A ticket's outcome is read by polling GET /api/auctions/bids/tickets/{id}; the push
+ * channels carry auction state to every subscriber, not per-ticket results.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class BidTicketService {
+
+    private static final Logger logger = Logger.getLogger(BidTicketService.class.getName());
+
+    private static final int WORKERS = Integer.getInteger("auction.async.workers", 4);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("auction.async.queueCapacity", 10000);
+
+    @EJB
+    private AuctionService auctionService;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private final ExpiringCache<String, BidTicket> tickets = new ExpiringCache<>(
+            Integer.getInteger("auction.async.ticketCacheSize", 100000),
+            Long.getLong("auction.async.ticketTtlSeconds", 600L) * 1000,
+            16);
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejectedWhenFull = new LongAdder();
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void initialize() {
+        workers = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Bid ticket service started with " + WORKERS + " workers");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Pending asynchronous bids were abandoned at shutdown: " + workers.getQueue().size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues the bid and returns its ticket, or throws {@link BidQueueFullException} when
+     * the queue is full.
+     */
+    public BidTicket submit(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        BidTicket ticket = new BidTicket(UUID.randomUUID().toString(), auctionId, bidderId, amount);
+        tickets.put(ticket.getTicketId(), ticket);
+        try {
+            workers.execute(() -> process(ticket, ipAddress));
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticket.getTicketId());
+            rejectedWhenFull.increment();
+            throw new BidQueueFullException("Too many pending bids, please retry");
+        }
+        submitted.increment();
+        return ticket;
+    }
+
+    public BidTicket getTicket(String ticketId) {
+        return tickets.get(ticketId);
+    }
+
+    public int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getRejectedWhenFullCount() {
+        return rejectedWhenFull.sum();
+    }
+
+    private void process(BidTicket ticket, String ipAddress) {
+        try {
+            Bid bid = auctionService.placeBid(ticket.getAuctionId(), ticket.getBidderId(), ticket.getAmount(), ipAddress);
+            ticket.accept(bid.getBidId(), bid.getStatus().toString());
+        } catch (Exception e) {
+            ticket.reject(rootMessage(e));
+        }
+    }
+
+    private String rootMessage(Throwable e) {
+        // Only validation and conflict messages are meant for clients
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException || cause instanceof IllegalStateException
+                    || cause instanceof BidConflictException) {
+                return cause.getMessage();
+            }
+        }
+        return "Failed to place bid";
+    }
+}
@@ -0,0 +1,100 @@
+package com.auction.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary client key. Buckets are spread over
+ * independently locked stripes so unrelated clients never contend, and each stripe keeps
+ * only its most recently used buckets to bound memory.
+ */
+public class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final List<Stripe> stripes;
+
+    public TokenBucketLimiter(double permitsPerSecond, int burst, int maxKeys, int stripeCount) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be a positive number of permits per second: " +
+                    permitsPerSecond);
+        }
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000d;
+        this.stripes = new ArrayList<>(stripeCount);
+        int perStripe = Math.max(16, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(new Stripe(perStripe));
+        }
+    }
+
+    /**
+     * Takes one token for the key. Returns 0 if the call is allowed, otherwise the number of
+     * nanoseconds until a token becomes available.
+     */
+    public long tryAcquire(Object key) {
+        return stripeFor(key).tryAcquire(key, System.nanoTime());
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a call that did not go ahead.
+     */
+    public void refund(Object key) {
+        stripeFor(key).refund(key);
+    }
+
+    private Stripe stripeFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes.get((hash & Integer.MAX_VALUE) % stripes.size());
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+    }
+
+    private final class Stripe {
+        private final LinkedHashMap<Object, Bucket> buckets;
+
+        Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<Object, Bucket>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+
+        synchronized long tryAcquire(Object key, long now) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+                bucket.lastRefill = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+
+        synchronized void refund(Object key) {
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        }
+    }
+}
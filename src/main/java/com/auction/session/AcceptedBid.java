@@ -0,0 +1,46 @@
+package com.auction.session;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A bid the matching engine has accepted and journaled but not necessarily persisted yet.
+ */
+public class AcceptedBid implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long sequence;
+    private final Long auctionId;
+    private final Long bidderId;
+    private final BigDecimal amount;
+    private final Date bidTime;
+    private final String ipAddress;
+
+    public AcceptedBid(long sequence, Long auctionId, Long bidderId, BigDecimal amount,
+                       Date bidTime, String ipAddress) {
+        this.sequence = sequence;
+        this.auctionId = auctionId;
+        this.bidderId = bidderId;
+        this.amount = amount;
+        this.bidTime = bidTime;
+        this.ipAddress = ipAddress;
+    }
+
+    public long getSequence() { return sequence; }
+    public Long getAuctionId() { return auctionId; }
+    public Long getBidderId() { return bidderId; }
+    public BigDecimal getAmount() { return amount; }
+    public Date getBidTime() { return bidTime; }
+    public String getIpAddress() { return ipAddress; }
+
+    @Override
+    public String toString() {
+        return "AcceptedBid{" +
+                "sequence=" + sequence +
+                ", auctionId=" + auctionId +
+                ", bidderId=" + bidderId +
+                ", amount=" + amount +
+                '}';
+    }
+}
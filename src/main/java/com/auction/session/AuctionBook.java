@@ -0,0 +1,77 @@
+package com.auction.session;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * In-memory price state of one active auction, as held by {@link BidMatchingEngine}.
+ * Callers synchronize on the book while validating and applying a bid.
+ */
+public class AuctionBook {
+
+    private final Long auctionId;
+    private final Long sellerId;
+    private final BigDecimal bidIncrement;
+    private final long endTime;
+    private BigDecimal currentPrice;
+    private Long leadingBidderId;
+    private BigDecimal leadingAmount;
+    private int bidCount;
+
+    public AuctionBook(Long auctionId, Long sellerId, BigDecimal currentPrice,
+                       BigDecimal bidIncrement, Date endTime, int bidCount) {
+        this.auctionId = auctionId;
+        this.sellerId = sellerId;
+        this.currentPrice = currentPrice;
+        this.bidIncrement = bidIncrement;
+        this.endTime = endTime.getTime();
+        this.bidCount = bidCount;
+    }
+
+    public boolean isOpen(long now) {
+        return now < endTime;
+    }
+
+    public BigDecimal getMinimumBid() {
+        return currentPrice.add(bidIncrement);
+    }
+
+    /**
+     * Applies the same rules as the transactional bid path and throws the same exceptions.
+     */
+    public void validate(Long bidderId, BigDecimal amount, long now) {
+        if (!isOpen(now)) {
+            throw new IllegalStateException("Auction is not active");
+        }
+        BigDecimal minimumBid = getMinimumBid();
+        if (amount.compareTo(minimumBid) < 0) {
+            throw new IllegalArgumentException("Bid amount must be at least " + minimumBid);
+        }
+        if (sellerId.equals(bidderId)) {
+            throw new IllegalArgumentException("Seller cannot bid on their own auction");
+        }
+    }
+
+    public void apply(Long bidderId, BigDecimal amount) {
+        this.currentPrice = amount;
+        this.leadingBidderId = bidderId;
+        this.leadingAmount = amount;
+    }
+
+    /**
+     * Applies a newly accepted bid and counts it, like Auction.registerWinningBid does for
+     * the persisted bid count.
+     */
+    public void accept(Long bidderId, BigDecimal amount) {
+        apply(bidderId, amount);
+        bidCount++;
+    }
+
+    public Long getAuctionId() { return auctionId; }
+    public Long getSellerId() { return sellerId; }
+    public BigDecimal getBidIncrement() { return bidIncrement; }
+    public BigDecimal getCurrentPrice() { return currentPrice; }
+    public Long getLeadingBidderId() { return leadingBidderId; }
+    public BigDecimal getLeadingAmount() { return leadingAmount; }
+    public int getBidCount() { return bidCount; }
+}
@@ -0,0 +1,87 @@
+package com.auction.session;
+
+import com.auction.entity.OutboxDestination;
+import com.auction.entity.OutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.ejb.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Local, replayable history of every bid and lifecycle event published by
+ * {@link OutboxDispatcher}, in publication order. Clients and projections catch up by
+ * reading from the last offset they saw instead of re-querying bids.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuctionEventLog {
+
+    private static final Logger logger = Logger.getLogger(AuctionEventLog.class.getName());
+
+    public static final byte TYPE_BID_UPDATE = 1;
+    public static final byte TYPE_AUCTION_EVENT = 2;
+
+    private static final int SEGMENT_BYTES = Integer.getInteger("auction.eventlog.segmentBytes", 64 * 1024 * 1024);
+    private static final int MAX_SEGMENTS = Integer.getInteger("auction.eventlog.maxSegments", 16);
+
+    private EventLog log;
+
+    @PostConstruct
+    public void initialize() {
+        String directory = System.getProperty("auction.eventlog.dir",
+                System.getProperty("jboss.server.data.dir", System.getProperty("java.io.tmpdir")));
+        try {
+            log = new EventLog(Paths.get(directory, "auction", "events"), SEGMENT_BYTES, MAX_SEGMENTS);
+            logger.info("Event log opened at offsets " + log.getStartOffset() + ".." + log.getNextOffset());
+        } catch (IOException e) {
+            // Catch-up is an optimisation; bidding must not depend on it
+            logger.severe("Unable to open event log, catch-up is disabled: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.warning("Error closing event log: " + e.getMessage());
+        }
+    }
+
+    public void append(OutboxEvent event) {
+        if (log == null) {
+            return;
+        }
+        byte type = event.getDestination() == OutboxDestination.BID_TOPIC ? TYPE_BID_UPDATE : TYPE_AUCTION_EVENT;
+        try {
+            log.append(type, event.getPayload());
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Unable to append to event log: " + e.getMessage());
+        }
+    }
+
+    public List<EventLog.Entry> read(long fromOffset, int maxEntries) {
+        return log != null ? log.read(fromOffset, maxEntries) : Collections.<EventLog.Entry>emptyList();
+    }
+
+    public boolean isAvailable() {
+        return log != null;
+    }
+
+    public long getStartOffset() {
+        return log != null ? log.getStartOffset() : 0L;
+    }
+
+    public long getNextOffset() {
+        return log != null ? log.getNextOffset() : 0L;
+    }
+}
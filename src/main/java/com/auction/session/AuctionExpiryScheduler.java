@@ -0,0 +1,117 @@
+package com.auction.session;
+
+import com.auction.entity.AuctionStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Ends auctions at their end time. Every active auction's deadline sits in a
+ * {@link TimerWheel} that is advanced on a short interval timer, so an auction closes
+ * within about a second of its end time. The wheel is rebuilt from a single projection
+ * query at startup; the periodic maintenance sweep remains as a backstop.
+ * <p>
+ * The timer runs without a transaction and each auction ends in its own, so one failure
+ * cannot roll back the others. An auction stays armed until its close has committed: a
+ * failed close, or one the tick never reached, is scheduled again.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuctionExpiryScheduler {
+
+    private static final Logger logger = Logger.getLogger(AuctionExpiryScheduler.class.getName());
+
+    private static final long TICK_MS = Long.getLong("auction.expiry.tickMs", 250L);
+    private static final long RETRY_DELAY_MS = 1000L;
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    @EJB
+    private AuctionSessionBeanLocal auctionSession;
+
+    @Resource
+    private TimerService timerService;
+
+    private final TimerWheel<Long> wheel = new TimerWheel<>(TICK_MS, System.currentTimeMillis());
+    private final AtomicBoolean advancing = new AtomicBoolean(false);
+    private final LongAdder expired = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        Query query = em.createQuery(
+                "SELECT a.auctionId, a.endTime FROM Auction a WHERE a.status = :activeStatus"
+        );
+        query.setParameter("activeStatus", AuctionStatus.ACTIVE);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        for (Object[] result : results) {
+            wheel.schedule((Long) result[0], ((Date) result[1]).getTime());
+        }
+
+        timerService.createIntervalTimer(TICK_MS, TICK_MS, new TimerConfig(null, false));
+        logger.info("Scheduled expiry of " + results.size() + " active auctions");
+    }
+
+    public void schedule(Long auctionId, Date endTime) {
+        wheel.schedule(auctionId, endTime.getTime());
+    }
+
+    public void cancel(Long auctionId) {
+        wheel.cancel(auctionId);
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void advance(Timer timer) {
+        if (!advancing.compareAndSet(false, true)) {
+            return;
+        }
+        List<Long> due = Collections.emptyList();
+        int handled = 0;
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+            for (; handled < due.size(); handled++) {
+                Long auctionId = due.get(handled);
+                // Each auction ends in its own transaction, committed when the call returns
+                try {
+                    Date endTime = auctionSession.expireAuction(auctionId);
+                    if (endTime != null) {
+                        wheel.schedule(auctionId, endTime.getTime());
+                    } else {
+                        expired.increment();
+                    }
+                } catch (Exception e) {
+                    logger.warning("Error ending auction " + auctionId + ", will retry: " + e.getMessage());
+                    wheel.schedule(auctionId, System.currentTimeMillis() + RETRY_DELAY_MS);
+                }
+            }
+        } finally {
+            // Auctions this tick did not get to are still due
+            for (int i = handled; i < due.size(); i++) {
+                wheel.schedule(due.get(i), System.currentTimeMillis() + RETRY_DELAY_MS);
+            }
+            advancing.set(false);
+        }
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+}
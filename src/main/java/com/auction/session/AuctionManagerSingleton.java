@@ -1,75 +1,217 @@
 package com.auction.session;
 
 import com.auction.entity.AuctionStatus;
+import com.auction.messaging.AuctionEvent;
+import com.auction.messaging.AuctionEventType;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
 import jakarta.ejb.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
+/**
+ * Shared counters for active auctions and per-category {@link CategoryStatistics}. Uses
+ * bean-managed concurrency: each auction's state is updated under its own monitor and
+ * everything else is held in concurrent maps and {@link LongAdder}s, so bid updates never
+ * block readers and readers never block each other. The counters are checkpointed to a local
+ * {@link CounterSnapshot}, so a restart loads the snapshot and reconciles only the
+ * auctions that changed since it was taken.
+ */
 @Singleton
 @Startup
-@ConcurrencyManagement(ConcurrencyManagementType.CONTAINER)
-@Lock(LockType.READ)
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class AuctionManagerSingleton {
 
     private static final Logger logger = Logger.getLogger(AuctionManagerSingleton.class.getName());
 
+    private static final int MAINTENANCE_CHUNK_SIZE = Integer.getInteger("auction.maintenance.chunkSize", 500);
+    private static final long CHECKPOINT_OVERLAP_MS = Long.getLong("auction.maintenance.overlapSeconds", 60L) * 1000;
+    private static final long SNAPSHOT_INTERVAL_MS = Long.getLong("auction.snapshot.intervalSeconds", 60L) * 1000;
+    private static final long CLOSED_RETENTION_MS = Long.getLong("auction.closedRetentionSeconds", 3600L) * 1000;
+
+    /**
+     * Bid count and current price of an active auction plus the category it is counted
+     * under. The category is null when bids arrive before the auction is registered, and
+     * is set by whoever registers it. Fields are written under the instance's monitor and
+     * are volatile so readers and the snapshot need no lock.
+     */
+    private static final class ActiveAuction {
+        private volatile long bids;
+        private volatile String category;
+        private volatile BigDecimal price;
+        private boolean closed;
+
+        ActiveAuction(long bidCount) {
+            this.bids = bidCount;
+        }
+    }
+
     @PersistenceContext(unitName = "auctionPU")
     private EntityManager em;
 
+    @Resource
+    private SessionContext sessionContext;
+
+    @Resource
+    private TimerService timerService;
+
     // Shared application state
-    private final ConcurrentHashMap<Long, Integer> activeAuctionBidCounts = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, AtomicInteger> categoryCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ActiveAuction> activeAuctions = new ConcurrentHashMap<>();
+    // Ids of auctions that ended or were cancelled, with when, so late bid updates cannot bring them back
+    private final ConcurrentHashMap<Long, Long> closedAuctions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CategoryStatistics> categoryStatistics = new ConcurrentHashMap<>();
+    private final LongAdder totalActiveBids = new LongAdder();
+    private final AtomicBoolean maintenanceRunning = new AtomicBoolean(false);
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean(false);
+    private Path snapshotFile;
     private volatile boolean systemMaintenance = false;
     private volatile Date lastSystemUpdate;
+    private volatile Date statusCheckpoint;
+    private volatile long lastMaintenanceDurationMs;
+    private volatile int lastMaintenanceExpired;
+    private volatile int lastMaintenanceReconciled;
+    private volatile int lastMaintenanceChunks;
 
     @PostConstruct
     public void initialize() {
         logger.info("Initializing Auction Manager Singleton...");
-        loadActiveAuctionStats();
-        initializeCategoryCounters();
+        Date startTime = new Date();
+        if (isSchemaRecreatedOnStart()) {
+            // Every snapshot would describe a table that no longer exists
+            logger.info("Counter snapshots are disabled because the schema is recreated on every start");
+            loadActiveAuctionStats();
+        } else {
+            String directory = System.getProperty("auction.snapshot.dir",
+                    System.getProperty("jboss.server.data.dir", System.getProperty("java.io.tmpdir")));
+            snapshotFile = Paths.get(directory, "auction", "counters.snapshot");
+            if (!loadSnapshot()) {
+                loadActiveAuctionStats();
+            }
+            timerService.createIntervalTimer(SNAPSHOT_INTERVAL_MS, SNAPSHOT_INTERVAL_MS, new TimerConfig(null, false));
+        }
+        statusCheckpoint = startTime;
         lastSystemUpdate = new Date();
+
         logger.info("Auction Manager Singleton initialized successfully");
     }
 
     @PreDestroy
     public void cleanup() {
         logger.info("Shutting down Auction Manager Singleton...");
-        activeAuctionBidCounts.clear();
-        categoryCounters.clear();
+        writeSnapshot();
+        activeAuctions.clear();
+        closedAuctions.clear();
+        categoryStatistics.clear();
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void onSnapshotTimer(Timer timer) {
+        writeSnapshot();
     }
 
-    @Lock(LockType.WRITE)
     public void incrementBidCount(Long auctionId) {
-        activeAuctionBidCounts.merge(auctionId, 1, Integer::sum);
-        logger.fine("Incremented bid count for auction " + auctionId +
-                " to " + activeAuctionBidCounts.get(auctionId));
+        recordBids(auctionId, 1, null);
     }
 
-    public Integer getBidCount(Long auctionId) {
-        return activeAuctionBidCounts.getOrDefault(auctionId, 0);
+    /**
+     * Applies bids placed on an auction, with its current price after them if known. Bids
+     * for an auction that has already closed are ignored.
+     */
+    public void recordBids(Long auctionId, int count, BigDecimal currentPrice) {
+        ActiveAuction auction = activeAuction(auctionId);
+        if (auction == null) {
+            return;
+        }
+        synchronized (auction) {
+            if (isClosed(auctionId, auction)) {
+                return;
+            }
+            auction.bids += count;
+            totalActiveBids.add(count);
+            if (auction.category != null) {
+                categoryStatistics(auction.category).recordBids(count, System.currentTimeMillis());
+            }
+            raisePrice(auctionId, auction, currentPrice);
+        }
     }
 
-    @Lock(LockType.WRITE)
-    public void incrementCategoryCounter(String category) {
-        categoryCounters.computeIfAbsent(category, k -> new AtomicInteger(0)).incrementAndGet();
+    /**
+     * Starts tracking an auction that became active. Repeated events are ignored, so the
+     * category statistics count each auction once.
+     */
+    public void registerActiveAuction(Long auctionId, String category, int bidCount, BigDecimal currentPrice) {
+        if (closedAuctions.containsKey(auctionId)) {
+            return;
+        }
+        ActiveAuction added = new ActiveAuction(bidCount);
+        ActiveAuction existing = activeAuctions.putIfAbsent(auctionId, added);
+        ActiveAuction auction = existing != null ? existing : added;
+        synchronized (auction) {
+            // Counted first, since closing the entry takes its bids back out of the total
+            if (existing == null) {
+                totalActiveBids.add(bidCount);
+            }
+            if (isClosed(auctionId, auction)) {
+                return;
+            }
+            raisePrice(auctionId, auction, currentPrice);
+            if (auction.category == null && category != null) {
+                auction.category = category;
+                categoryStatistics(category).addAuction(auctionId, auction.price, auction.bids);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking an auction that ended or was cancelled and takes it out of the
+     * statistics of the category it was counted under.
+     */
+    public void unregisterActiveAuction(Long auctionId) {
+        closedAuctions.put(auctionId, System.currentTimeMillis());
+        ActiveAuction removed = activeAuctions.remove(auctionId);
+        if (removed == null) {
+            return;
+        }
+        synchronized (removed) {
+            close(auctionId, removed);
+        }
+    }
+
+    public Integer getBidCount(Long auctionId) {
+        ActiveAuction auction = activeAuctions.get(auctionId);
+        return auction != null ? (int) auction.bids : 0;
     }
 
     public int getCategoryCount(String category) {
-        AtomicInteger counter = categoryCounters.get(category);
-        return counter != null ? counter.get() : 0;
+        CategoryStatistics statistics = categoryStatistics.get(category);
+        return statistics != null ? (int) statistics.getActiveCount() : 0;
+    }
+
+    /**
+     * Live, read-only view of the statistics of every category seen so far.
+     */
+    public Map<String, CategoryStatistics> getCategoryStatistics() {
+        return Collections.unmodifiableMap(categoryStatistics);
     }
 
-    @Lock(LockType.WRITE)
     public void setSystemMaintenance(boolean maintenance) {
         this.systemMaintenance = maintenance;
         logger.info("System maintenance mode set to: " + maintenance);
@@ -79,63 +221,201 @@ public class AuctionManagerSingleton {
         return systemMaintenance;
     }
 
+    /**
+     * Ends overdue auctions and reconciles the counters with auctions whose status changed
+     * since the previous run. Both steps work in bounded chunks, so the cost follows the
+     * number of changes rather than the table size. The run itself holds no transaction and
+     * each chunk is called through the business object to get its own; ejb-jar.xml declares
+     * these attributes per method, since its wildcard entry overrides the annotations.
+     */
     @Schedule(hour = "*", minute = "*/5", persistent = false)
-    @Lock(LockType.WRITE)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public void performPeriodicMaintenance() {
+        // Counters stay readable throughout; only a second run is turned away
+        if (!maintenanceRunning.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
         try {
             logger.info("Performing periodic auction maintenance...");
-
-            // End expired auctions
-            endExpiredAuctions();
-
-            // Clean up old bid counts for ended auctions
-            cleanupEndedAuctionStats();
+            AuctionManagerSingleton self = sessionContext.getBusinessObject(AuctionManagerSingleton.class);
+            Date runStart = new Date(started);
+            int chunks = 0;
+
+            // Backstop for auctions the expiry scheduler missed
+            int expired = 0;
+            int ended;
+            do {
+                ended = self.endExpiredChunk(runStart);
+                expired += ended;
+                chunks++;
+            } while (ended == MAINTENANCE_CHUNK_SIZE);
+
+            int reconciled = reconcileStatusChanges(self, statusCheckpoint, MAINTENANCE_CHUNK_SIZE);
+            // Paging stops at the first chunk that is not full
+            chunks += reconciled / MAINTENANCE_CHUNK_SIZE + 1;
+            statusCheckpoint = runStart;
+            closedAuctions.values().removeIf(closedAt -> closedAt < started - CLOSED_RETENTION_MS);
 
             // Update system timestamp
             lastSystemUpdate = new Date();
+            lastMaintenanceExpired = expired;
+            lastMaintenanceReconciled = reconciled;
+            lastMaintenanceChunks = chunks;
 
-            logger.info("Periodic maintenance completed successfully");
+            logger.info("Periodic maintenance completed: " + expired + " auctions ended, " +
+                    reconciled + " status changes reconciled");
         } catch (Exception e) {
             logger.severe("Error during periodic maintenance: " + e.getMessage());
+        } finally {
+            lastMaintenanceDurationMs = System.currentTimeMillis() - started;
+            maintenanceRunning.set(false);
         }
     }
 
-    private void endExpiredAuctions() {
-        Query query = em.createQuery(
-                "UPDATE Auction a SET a.status = :endedStatus " +
+    /**
+     * Applies every status change since the checkpoint and returns how many there were.
+     * Changes are paged by (statusChangedTime, auctionId), so auctions that changed in the
+     * same instant are neither skipped nor repeated at a chunk boundary, and paging stops
+     * at the first chunk that is not full.
+     */
+    int reconcileStatusChanges(AuctionManagerSingleton self, Date checkpoint, int chunkSize) {
+        // Overlap the previous window so changes committed late are not missed
+        Date since = new Date(checkpoint.getTime() - CHECKPOINT_OVERLAP_MS);
+        Long afterId = 0L;
+        int reconciled = 0;
+        List<Object[]> changes;
+        do {
+            changes = self.findStatusChanges(since, afterId, chunkSize);
+            for (Object[] change : changes) {
+                applyStatusChange((Long) change[0], (String) change[1], (AuctionStatus) change[2],
+                        (Integer) change[3], (BigDecimal) change[5]);
+                since = (Date) change[4];
+                afterId = (Long) change[0];
+            }
+            reconciled += changes.size();
+        } while (changes.size() == chunkSize);
+        return reconciled;
+    }
+
+    /**
+     * Ends up to one chunk of auctions that are past their end time and returns how many
+     * were found. Runs in a new transaction per chunk (RequiresNew in ejb-jar.xml).
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int endExpiredChunk(Date now) {
+        Query expiredQuery = em.createQuery(
+                "SELECT a.auctionId, a.category, a.currentPrice FROM Auction a " +
                         "WHERE a.status = :activeStatus AND a.endTime < :currentTime"
         );
+        expiredQuery.setParameter("activeStatus", AuctionStatus.ACTIVE);
+        expiredQuery.setParameter("currentTime", now);
+        expiredQuery.setMaxResults(MAINTENANCE_CHUNK_SIZE);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> expired = expiredQuery.getResultList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> auctionIds = new ArrayList<>(expired.size());
+        for (Object[] result : expired) {
+            auctionIds.add((Long) result[0]);
+        }
+
+        // Bumping the version makes a concurrent bid on one of these auctions fail instead
+        // of writing the old status back
+        Query query = em.createQuery(
+                "UPDATE Auction a SET a.status = :endedStatus, a.statusChangedTime = :currentTime, " +
+                        "a.version = a.version + 1 " +
+                        "WHERE a.auctionId IN :auctionIds AND a.status = :activeStatus"
+        );
         query.setParameter("endedStatus", AuctionStatus.ENDED);
         query.setParameter("activeStatus", AuctionStatus.ACTIVE);
-        query.setParameter("currentTime", new Date());
-
+        query.setParameter("currentTime", now);
+        query.setParameter("auctionIds", auctionIds);
         int updatedCount = query.executeUpdate();
-        if (updatedCount > 0) {
-            logger.info("Ended " + updatedCount + " expired auctions");
+
+        // An auction ended concurrently gets a second ENDED event, which consumers ignore
+        for (Object[] result : expired) {
+            em.persist(new AuctionEvent(AuctionEventType.AUCTION_ENDED, (Long) result[0], (String) result[1],
+                    AuctionStatus.ACTIVE, AuctionStatus.ENDED, (BigDecimal) result[2], now).toOutboxEvent());
         }
+        logger.info("Ended " + updatedCount + " expired auctions");
+        return expired.size();
     }
 
-    private void cleanupEndedAuctionStats() {
+    /**
+     * Returns up to max auctions whose status changed after the given position, as
+     * (auctionId, category, status, bidCount, statusChangedTime, currentPrice), in change order.
+     * Reads in a short transaction of its own (RequiresNew in ejb-jar.xml).
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<Object[]> findStatusChanges(Date since, Long afterId, int max) {
         Query query = em.createQuery(
-                "SELECT a.auctionId FROM Auction a WHERE a.status = :endedStatus OR a.status = :cancelledStatus"
+                "SELECT a.auctionId, a.category, a.status, a.bidCount, a.statusChangedTime, a.currentPrice " +
+                        "FROM Auction a " +
+                        "WHERE a.statusChangedTime > :since " +
+                        "OR (a.statusChangedTime = :since AND a.auctionId > :afterId) " +
+                        "ORDER BY a.statusChangedTime, a.auctionId"
         );
-        query.setParameter("endedStatus", AuctionStatus.ENDED);
-        query.setParameter("cancelledStatus", AuctionStatus.CANCELLED);
+        query.setParameter("since", since);
+        query.setParameter("afterId", afterId);
+        query.setMaxResults(max);
 
         @SuppressWarnings("unchecked")
-        List<Long> endedAuctionIds = query.getResultList();
+        List<Object[]> results = query.getResultList();
+        return results;
+    }
+
+    public long getLastMaintenanceDurationMs() {
+        return lastMaintenanceDurationMs;
+    }
+
+    public int getLastMaintenanceExpired() {
+        return lastMaintenanceExpired;
+    }
+
+    public int getLastMaintenanceReconciled() {
+        return lastMaintenanceReconciled;
+    }
+
+    public int getLastMaintenanceChunks() {
+        return lastMaintenanceChunks;
+    }
+
+    private void applyStatusChange(Long auctionId, String category, AuctionStatus status, int bidCount,
+                                   BigDecimal currentPrice) {
+        if (status == AuctionStatus.ACTIVE) {
+            registerActiveAuction(auctionId, category, bidCount, currentPrice);
+        } else if (status == AuctionStatus.ENDED || status == AuctionStatus.CANCELLED) {
+            unregisterActiveAuction(auctionId);
+        }
+    }
 
-        for (Long auctionId : endedAuctionIds) {
-            activeAuctionBidCounts.remove(auctionId);
+    /**
+     * Moves an auction's current price up. Prices only ever rise, so an older price
+     * arriving late is ignored. Must hold the auction's monitor.
+     */
+    private void raisePrice(Long auctionId, ActiveAuction auction, BigDecimal price) {
+        BigDecimal previous = auction.price;
+        if (price == null || (previous != null && price.compareTo(previous) <= 0)) {
+            return;
+        }
+        auction.price = price;
+        if (auction.category != null) {
+            categoryStatistics(auction.category).updatePrice(auctionId, previous, price);
         }
     }
 
+    /**
+     * Full load used when there is no usable snapshot. Category statistics are derived
+     * from the same rows, so the two always agree.
+     */
     private void loadActiveAuctionStats() {
         Query query = em.createQuery(
-                "SELECT a.auctionId, COUNT(b.bidId) FROM Auction a " +
-                        "LEFT JOIN a.bids b " +
-                        "WHERE a.status = :activeStatus " +
-                        "GROUP BY a.auctionId"
+                "SELECT a.auctionId, a.category, a.bidCount, a.currentPrice FROM Auction a " +
+                        "WHERE a.status = :activeStatus"
         );
         query.setParameter("activeStatus", AuctionStatus.ACTIVE);
 
@@ -143,46 +423,193 @@ public class AuctionManagerSingleton {
         List<Object[]> results = query.getResultList();
 
         for (Object[] result : results) {
-            Long auctionId = (Long) result[0];
-            Long bidCount = (Long) result[1];
-            activeAuctionBidCounts.put(auctionId, bidCount.intValue());
+            registerActiveAuction((Long) result[0], (String) result[1], (Integer) result[2],
+                    (BigDecimal) result[3]);
         }
 
-        logger.info("Loaded stats for " + activeAuctionBidCounts.size() + " active auctions");
+        logger.info("Loaded stats for " + activeAuctions.size() + " active auctions in " +
+                categoryStatistics.size() + " categories");
     }
 
-    private void initializeCategoryCounters() {
+    /**
+     * True when the persistence unit drops and recreates the tables at deployment, as
+     * hibernate.hbm2ddl.auto=create does.
+     */
+    private boolean isSchemaRecreatedOnStart() {
+        Map<String, Object> properties = em.getEntityManagerFactory().getProperties();
+        Object hbm2ddl = properties.get("hibernate.hbm2ddl.auto");
+        Object action = properties.get("jakarta.persistence.schema-generation.database.action");
+        return "create".equals(hbm2ddl) || "create-drop".equals(hbm2ddl) || "drop-and-create".equals(action);
+    }
+
+    /**
+     * Loads the last snapshot and catches up with every auction whose status changed or
+     * that received a bid since it was taken. Returns false if there was no usable
+     * snapshot, including one taken against a different database.
+     */
+    private boolean loadSnapshot() {
+        CounterSnapshot snapshot;
+        try {
+            snapshot = CounterSnapshot.read(snapshotFile);
+        } catch (IOException e) {
+            logger.warning("Ignoring unreadable counter snapshot: " + e.getMessage());
+            return false;
+        }
+        if (snapshot == null) {
+            return false;
+        }
+        if (!matchesDatabase(snapshot)) {
+            logger.warning("Ignoring counter snapshot from " + snapshot.getCheckpointTime() +
+                    ": it was taken against a different auction table");
+            return false;
+        }
+
+        for (CounterSnapshot.Entry entry : snapshot.getEntries()) {
+            registerActiveAuction(entry.getAuctionId(), entry.getCategory(), entry.getBidCount(),
+                    entry.getCurrentPrice());
+        }
+
+        // Overlap the checkpoint so changes committed just after it are not missed
+        Date since = new Date(snapshot.getCheckpointTime().getTime() - CHECKPOINT_OVERLAP_MS);
         Query query = em.createQuery(
-                "SELECT a.category, COUNT(a.auctionId) FROM Auction a " +
-                        "WHERE a.status = :activeStatus " +
-                        "GROUP BY a.category"
+                "SELECT a.auctionId, a.category, a.status, a.bidCount, a.currentPrice FROM Auction a " +
+                        "WHERE a.statusChangedTime > :since OR a.lastBidTime > :since"
         );
-        query.setParameter("activeStatus", AuctionStatus.ACTIVE);
+        query.setParameter("since", since);
 
         @SuppressWarnings("unchecked")
-        List<Object[]> results = query.getResultList();
+        List<Object[]> changes = query.getResultList();
+        for (Object[] change : changes) {
+            Long auctionId = (Long) change[0];
+            if (change[2] == AuctionStatus.ACTIVE) {
+                registerActiveAuction(auctionId, (String) change[1], (Integer) change[3], (BigDecimal) change[4]);
+                catchUpBidCount(auctionId, (Integer) change[3]);
+            } else {
+                unregisterActiveAuction(auctionId);
+            }
+        }
 
-        for (Object[] result : results) {
-            String category = (String) result[0];
-            Long count = (Long) result[1];
-            categoryCounters.put(category, new AtomicInteger(count.intValue()));
+        logger.info("Loaded counter snapshot of " + snapshot.getEntries().size() + " active auctions from " +
+                snapshot.getCheckpointTime() + " and reconciled " + changes.size() + " changed auctions");
+        return true;
+    }
+
+    /**
+     * Auctions are never deleted and ids only grow, so the rows up to the snapshot's highest
+     * id must still number exactly what the snapshot recorded. A recreated schema fails this
+     * even after new auctions reuse the old ids; a row that committed late only costs a
+     * full load.
+     */
+    private boolean matchesDatabase(CounterSnapshot snapshot) {
+        Query query = em.createQuery("SELECT COUNT(a) FROM Auction a WHERE a.auctionId <= :maxAuctionId");
+        query.setParameter("maxAuctionId", snapshot.getMaxAuctionId());
+        return ((Number) query.getSingleResult()).longValue() == snapshot.getAuctionCount();
+    }
+
+    private void catchUpBidCount(Long auctionId, int bidCount) {
+        ActiveAuction auction = activeAuctions.get(auctionId);
+        if (auction == null) {
+            return;
         }
+        synchronized (auction) {
+            long missing = bidCount - auction.bids;
+            if (!auction.closed && missing > 0) {
+                auction.bids += missing;
+                totalActiveBids.add(missing);
+                if (auction.category != null) {
+                    categoryStatistics(auction.category).addBids(missing);
+                }
+            }
+        }
+    }
 
-        logger.info("Initialized category counters for " + categoryCounters.size() + " categories");
+    /**
+     * Writes the counters to the snapshot file. The checkpoint is taken before copying,
+     * so anything that changes during the copy is caught up by the next restart. If the
+     * database cannot be asked for its identity, the previous snapshot is left in place.
+     */
+    private void writeSnapshot() {
+        if (snapshotFile == null || !snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Object[] identity;
+        try {
+            identity = (Object[]) em.createQuery("SELECT MAX(a.auctionId), COUNT(a) FROM Auction a")
+                    .getSingleResult();
+        } catch (RuntimeException e) {
+            logger.warning("Unable to write counter snapshot: " + e.getMessage());
+            snapshotRunning.set(false);
+            return;
+        }
+        long maxAuctionId = identity[0] != null ? ((Number) identity[0]).longValue() : 0L;
+        long auctionCount = ((Number) identity[1]).longValue();
+        try (CounterSnapshot.Writer writer = CounterSnapshot.create(snapshotFile, new Date(started),
+                maxAuctionId, auctionCount)) {
+            for (Map.Entry<Long, ActiveAuction> entry : activeAuctions.entrySet()) {
+                ActiveAuction auction = entry.getValue();
+                writer.add(entry.getKey(), auction.category, (int) auction.bids, auction.price);
+            }
+            writer.commit();
+            logger.fine("Wrote counter snapshot of " + writer.getCount() + " active auctions in " +
+                    (System.currentTimeMillis() - started) + " ms");
+        } catch (IOException e) {
+            logger.warning("Unable to write counter snapshot: " + e.getMessage());
+        } finally {
+            snapshotRunning.set(false);
+        }
     }
 
     public Date getLastSystemUpdate() {
         return lastSystemUpdate;
     }
 
-    public ConcurrentHashMap<String, Integer> getAllCategoryCounts() {
-        ConcurrentHashMap<String, Integer> result = new ConcurrentHashMap<>();
-        categoryCounters.forEach((category, counter) -> result.put(category, counter.get()));
-        return result;
+    public int getTotalActiveBids() {
+        return (int) totalActiveBids.sum();
     }
 
-    public int getTotalActiveBids() {
-        return activeAuctionBidCounts.values().stream().mapToInt(Integer::intValue).sum();
+    /**
+     * Returns the auction's entry, creating it if bids arrive before it is registered, or
+     * null if it has already closed.
+     */
+    private ActiveAuction activeAuction(Long auctionId) {
+        ActiveAuction auction = activeAuctions.get(auctionId);
+        if (auction != null || closedAuctions.containsKey(auctionId)) {
+            return auction;
+        }
+        return activeAuctions.computeIfAbsent(auctionId, id -> new ActiveAuction(0));
+    }
+
+    /**
+     * Whether the auction has closed. An entry created while the auction was closing is
+     * still in the map; it is removed and closed here. Called holding the entry's monitor.
+     */
+    private boolean isClosed(Long auctionId, ActiveAuction auction) {
+        if (auction.closed) {
+            return true;
+        }
+        if (!closedAuctions.containsKey(auctionId)) {
+            return false;
+        }
+        // If the remove fails, unregisterActiveAuction has it and closes it next
+        if (activeAuctions.remove(auctionId, auction)) {
+            close(auctionId, auction);
+        }
+        return true;
+    }
+
+    private void close(Long auctionId, ActiveAuction auction) {
+        auction.closed = true;
+        totalActiveBids.add(-auction.bids);
+        if (auction.category != null) {
+            categoryStatistics(auction.category).removeAuction(auctionId, auction.price, auction.bids);
+        }
+    }
+
+    private CategoryStatistics categoryStatistics(String category) {
+        CategoryStatistics statistics = categoryStatistics.get(category);
+        return statistics != null ? statistics
+                : categoryStatistics.computeIfAbsent(category, CategoryStatistics::new);
     }
 }
 
@@ -3,10 +3,17 @@ package com.auction.session;
 import com.auction.entity.Auction;
 import com.auction.entity.AuctionStatus;
 import com.auction.entity.User;
+import com.auction.messaging.AuctionEvent;
+import com.auction.messaging.AuctionEventType;
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -21,6 +28,15 @@ public class AuctionSessionBean implements AuctionSessionBeanLocal, AuctionSessi
     @PersistenceContext(unitName = "auctionPU")
     private EntityManager em;
 
+    @EJB
+    private AuctionExpiryScheduler expiryScheduler;
+
+    @EJB
+    private AuctionStartScheduler startScheduler;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
     @Override
     public Auction createAuction(String title, String description, String category,
                                  BigDecimal startingPrice, Date startTime, Date endTime, User seller) {
@@ -28,6 +44,8 @@ public class AuctionSessionBean implements AuctionSessionBeanLocal, AuctionSessi
             Auction auction = new Auction(title, description, category, startingPrice, startTime, endTime, seller);
             em.persist(auction);
             em.flush();
+            recordAuctionEvent(AuctionEventType.AUCTION_CREATED, auction, null);
+            scheduleStartOnCommit(auction.getAuctionId(), startTime);
 
             logger.info("Created new auction: " + title);
             return auction;
@@ -62,9 +80,27 @@ public class AuctionSessionBean implements AuctionSessionBeanLocal, AuctionSessi
         return em.find(Auction.class, auctionId);
     }
 
+    /**
+     * Reads the denormalized bid count without loading the auction.
+     */
+    @Override
+    public int findBidCount(Long auctionId) {
+        List<Integer> result = em.createQuery(
+                "SELECT a.bidCount FROM Auction a WHERE a.auctionId = :auctionId", Integer.class)
+                .setParameter("auctionId", auctionId)
+                .getResultList();
+        return result.isEmpty() ? 0 : result.get(0);
+    }
+
     @Override
     public Auction updateAuction(Auction auction) {
-        return em.merge(auction);
+        Auction merged = em.merge(auction);
+        if (merged.getStatus() == AuctionStatus.ACTIVE) {
+            expiryScheduler.schedule(merged.getAuctionId(), merged.getEndTime());
+        } else if (merged.getStatus() == AuctionStatus.PENDING) {
+            scheduleStartOnCommit(merged.getAuctionId(), merged.getStartTime());
+        }
+        return merged;
     }
 
     @Override
@@ -73,27 +109,103 @@ public class AuctionSessionBean implements AuctionSessionBeanLocal, AuctionSessi
         if (auction != null && auction.getStatus() == AuctionStatus.PENDING) {
             auction.setStatus(AuctionStatus.ACTIVE);
             em.merge(auction);
+            recordAuctionEvent(AuctionEventType.AUCTION_STARTED, auction, AuctionStatus.PENDING);
+            expiryScheduler.schedule(auctionId, auction.getEndTime());
             logger.info("Started auction: " + auctionId);
         }
     }
 
+    /**
+     * Activates the given auctions that are still pending, in one transaction, and returns
+     * the ones that were started.
+     */
+    @Override
+    public List<Auction> startAuctions(List<Long> auctionIds) {
+        Query query = em.createQuery(
+                "SELECT a FROM Auction a WHERE a.auctionId IN :auctionIds AND a.status = :pendingStatus"
+        );
+        query.setParameter("auctionIds", auctionIds);
+        query.setParameter("pendingStatus", AuctionStatus.PENDING);
+
+        @SuppressWarnings("unchecked")
+        List<Auction> auctions = query.getResultList();
+        for (Auction auction : auctions) {
+            auction.setStatus(AuctionStatus.ACTIVE);
+            recordAuctionEvent(AuctionEventType.AUCTION_STARTED, auction, AuctionStatus.PENDING);
+            expiryScheduler.schedule(auction.getAuctionId(), auction.getEndTime());
+        }
+        if (!auctions.isEmpty()) {
+            logger.info("Started " + auctions.size() + " auctions");
+        }
+        return auctions;
+    }
+
     @Override
     public void endAuction(Long auctionId) {
         Auction auction = findAuctionById(auctionId);
         if (auction != null && auction.getStatus() == AuctionStatus.ACTIVE) {
             auction.setStatus(AuctionStatus.ENDED);
             em.merge(auction);
+            recordAuctionEvent(AuctionEventType.AUCTION_ENDED, auction, AuctionStatus.ACTIVE);
             logger.info("Ended auction: " + auctionId);
         }
     }
 
+    /**
+     * Ends the auction if it is still active and its end time has passed. Returns the end
+     * time if the auction has not expired yet, otherwise null.
+     */
+    @Override
+    public Date expireAuction(Long auctionId) {
+        Auction auction = findAuctionById(auctionId);
+        if (auction == null || auction.getStatus() != AuctionStatus.ACTIVE) {
+            return null;
+        }
+        if (auction.getEndTime().after(new Date())) {
+            return auction.getEndTime();
+        }
+        auction.setStatus(AuctionStatus.ENDED);
+        recordAuctionEvent(AuctionEventType.AUCTION_ENDED, auction, AuctionStatus.ACTIVE);
+        logger.info("Auction reached its end time: " + auctionId);
+        return null;
+    }
+
     @Override
     public void cancelAuction(Long auctionId) {
         Auction auction = findAuctionById(auctionId);
-        if (auction != null) {
+        if (auction != null && auction.getStatus() != AuctionStatus.CANCELLED) {
+            AuctionStatus previousStatus = auction.getStatus();
             auction.setStatus(AuctionStatus.CANCELLED);
             em.merge(auction);
+            recordAuctionEvent(AuctionEventType.AUCTION_CANCELLED, auction, previousStatus);
             logger.info("Cancelled auction: " + auctionId);
         }
     }
+
+    /**
+     * Hands the auction to the start scheduler once the row is committed; scheduled any
+     * earlier, a due start could query for the auction before it is visible and drop it.
+     */
+    private void scheduleStartOnCommit(Long auctionId, Date startTime) {
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    startScheduler.schedule(auctionId, startTime);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues the lifecycle event in the outbox so it commits with the status change.
+     */
+    private void recordAuctionEvent(AuctionEventType type, Auction auction, AuctionStatus previousStatus) {
+        em.persist(new AuctionEvent(type, auction.getAuctionId(), auction.getCategory(),
+                previousStatus, auction.getStatus(), auction.getCurrentPrice(), new Date()).toOutboxEvent());
+    }
 }
\ No newline at end of file
@@ -16,9 +16,12 @@ public interface AuctionSessionBeanLocal {
     List<Auction> findAuctionsByCategory(String category);
     List<Auction> findAuctionsEndingSoon(Date endTime);
     Auction findAuctionById(Long auctionId);
+    int findBidCount(Long auctionId);
     Auction updateAuction(Auction auction);
     void startAuction(Long auctionId);
+    List<Auction> startAuctions(List<Long> auctionIds);
     void endAuction(Long auctionId);
+    Date expireAuction(Long auctionId);
     void cancelAuction(Long auctionId);
 }
 
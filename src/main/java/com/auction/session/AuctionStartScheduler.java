@@ -0,0 +1,180 @@
+package com.auction.session;
+
+import com.auction.entity.Auction;
+import com.auction.entity.AuctionStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Activates PENDING auctions when their start time arrives. Pending auctions are kept in
+ * memory ordered by start time; a short interval timer takes the due ones off the front
+ * and starts them in bounded batches, each in its own transaction, so a large drop of
+ * auctions opening together never holds a long transaction. Started auctions are added
+ * to the singleton's counters as soon as their batch commits. Auctions are queued only
+ * after their creating transaction commits, and any the batch skips while they are still
+ * pending are queued again.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuctionStartScheduler {
+
+    private static final Logger logger = Logger.getLogger(AuctionStartScheduler.class.getName());
+
+    private static final long TICK_MS = Long.getLong("auction.start.tickMs", 250L);
+    private static final int BATCH_SIZE = Integer.getInteger("auction.start.batchSize", 200);
+    private static final long RETRY_DELAY_MS = 1000L;
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    @EJB
+    private AuctionSessionBeanLocal auctionSession;
+
+    @EJB
+    private AuctionManagerSingleton auctionManager;
+
+    @Resource
+    private TimerService timerService;
+
+    // Guarded by this
+    private final TreeSet<PendingStart> queue = new TreeSet<>();
+    private final Map<Long, PendingStart> byAuction = new HashMap<>();
+
+    private final AtomicBoolean starting = new AtomicBoolean(false);
+    private final LongAdder started = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        Query query = em.createQuery(
+                "SELECT a.auctionId, a.startTime FROM Auction a WHERE a.status = :pendingStatus"
+        );
+        query.setParameter("pendingStatus", AuctionStatus.PENDING);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        for (Object[] result : results) {
+            schedule((Long) result[0], (Date) result[1]);
+        }
+
+        timerService.createIntervalTimer(TICK_MS, TICK_MS, new TimerConfig(null, false));
+        logger.info("Scheduled start of " + results.size() + " pending auctions");
+    }
+
+    public synchronized void schedule(Long auctionId, Date startTime) {
+        PendingStart entry = new PendingStart(auctionId, startTime.getTime());
+        PendingStart previous = byAuction.put(auctionId, entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(entry);
+    }
+
+    public synchronized void cancel(Long auctionId) {
+        PendingStart previous = byAuction.remove(auctionId);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void startDueAuctions(Timer timer) {
+        if (!starting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Long> batch;
+            while (!(batch = takeDue(System.currentTimeMillis())).isEmpty()) {
+                try {
+                    List<Long> skipped = new ArrayList<>(batch);
+                    for (Auction auction : auctionSession.startAuctions(batch)) {
+                        auctionManager.registerActiveAuction(auction.getAuctionId(), auction.getCategory(),
+                                auction.getBidCount(), auction.getCurrentPrice());
+                        started.increment();
+                        skipped.remove(auction.getAuctionId());
+                    }
+                    if (!skipped.isEmpty()) {
+                        retryStillPending(skipped);
+                    }
+                } catch (Exception e) {
+                    logger.warning("Error starting " + batch.size() + " auctions, will retry: " + e.getMessage());
+                    Date retryAt = new Date(System.currentTimeMillis() + RETRY_DELAY_MS);
+                    for (Long auctionId : batch) {
+                        schedule(auctionId, retryAt);
+                    }
+                    return;
+                }
+            }
+        } finally {
+            starting.set(false);
+        }
+    }
+
+    /**
+     * Puts back auctions the batch did not start but that are still PENDING, for example a
+     * row whose insert was not yet visible; cancelled or already started ones are dropped.
+     */
+    private void retryStillPending(List<Long> auctionIds) {
+        Query query = em.createQuery(
+                "SELECT a.auctionId FROM Auction a WHERE a.auctionId IN :auctionIds AND a.status = :pendingStatus"
+        );
+        query.setParameter("auctionIds", auctionIds);
+        query.setParameter("pendingStatus", AuctionStatus.PENDING);
+
+        @SuppressWarnings("unchecked")
+        List<Long> pending = query.getResultList();
+        Date retryAt = new Date(System.currentTimeMillis() + RETRY_DELAY_MS);
+        for (Long auctionId : pending) {
+            schedule(auctionId, retryAt);
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getStartedCount() {
+        return started.sum();
+    }
+
+    private synchronized List<Long> takeDue(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        while (due.size() < BATCH_SIZE && !queue.isEmpty() && queue.first().startTime <= nowMillis) {
+            PendingStart entry = queue.pollFirst();
+            byAuction.remove(entry.auctionId);
+            due.add(entry.auctionId);
+        }
+        return due;
+    }
+
+    private static final class PendingStart implements Comparable<PendingStart> {
+        private final Long auctionId;
+        private final long startTime;
+
+        PendingStart(Long auctionId, long startTime) {
+            this.auctionId = auctionId;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public int compareTo(PendingStart other) {
+            int byTime = Long.compare(startTime, other.startTime);
+            return byTime != 0 ? byTime : auctionId.compareTo(other.auctionId);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.auction.session;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Thrown when a bid could not be applied because of concurrent bids on the same auction.
+ * The bid was not recorded and the client may retry it.
+ */
+@ApplicationException(rollback = true)
+public class BidConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BidConflictException(String message) {
+        super(message);
+    }
+}
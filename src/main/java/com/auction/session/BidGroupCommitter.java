@@ -0,0 +1,116 @@
+package com.auction.session;
+
+import com.auction.entity.Bid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects bids on the same auction that arrive within a short window and commits them as
+ * one group. The first caller of a window becomes its leader. If no other group of the
+ * auction is committing, it commits straight away; otherwise it waits for the window to
+ * elapse or the group to fill, so bids arriving during a commit share the next one. The
+ * other callers block until their own outcome is known. A group never holds more than
+ * the configured number of bids.
+ */
+public class BidGroupCommitter {
+
+    private final long windowNanos;
+    private final int maxBids;
+    private final ConcurrentHashMap<Long, Group> openGroups = new ConcurrentHashMap<>();
+    // Number of groups per auction whose leader has not finished committing
+    private final ConcurrentHashMap<Long, Integer> committing = new ConcurrentHashMap<>();
+
+    public BidGroupCommitter(long window, TimeUnit unit, int maxBids) {
+        this.windowNanos = unit.toNanos(window);
+        this.maxBids = Math.max(1, maxBids);
+    }
+
+    /**
+     * Adds the bid to the auction's open group and waits for its outcome. The commit action
+     * must resolve every bid it is given, in order; bids it leaves unresolved are rejected.
+     * If it throws, every bid in the group fails with that exception, including any it had
+     * already resolved, since none of them were committed.
+     */
+    public Bid submit(GroupedBid bid, Consumer<List<GroupedBid>> commitAction) throws InterruptedException {
+        Long auctionId = bid.getAuctionId();
+        while (true) {
+            Group group = openGroups.get(auctionId);
+            if (group == null) {
+                Group created = new Group();
+                created.add(bid);
+                if (openGroups.putIfAbsent(auctionId, created) == null) {
+                    lead(auctionId, created, commitAction);
+                    break;
+                }
+            } else if (group.add(bid)) {
+                break;
+            } else {
+                // Sealed, possibly by the bid that filled it; start the next group
+                openGroups.remove(auctionId, group);
+            }
+        }
+        return bid.await();
+    }
+
+    private void lead(Long auctionId, Group group, Consumer<List<GroupedBid>> commitAction) {
+        boolean busy = committing.containsKey(auctionId);
+        committing.merge(auctionId, 1, Integer::sum);
+        List<GroupedBid> bids = group.awaitAndSeal(busy);
+        openGroups.remove(auctionId, group);
+        try {
+            commitAction.accept(bids);
+        } catch (RuntimeException e) {
+            for (GroupedBid bid : bids) {
+                bid.fail(e);
+            }
+        } finally {
+            committing.computeIfPresent(auctionId, (id, count) -> count > 1 ? count - 1 : null);
+            for (GroupedBid bid : bids) {
+                if (!bid.isResolved()) {
+                    bid.reject(new IllegalStateException("Bid was not processed"));
+                }
+                bid.complete();
+            }
+        }
+    }
+
+    private class Group {
+        private final List<GroupedBid> bids = new ArrayList<>();
+        private boolean sealed;
+
+        synchronized boolean add(GroupedBid bid) {
+            if (sealed) {
+                return false;
+            }
+            bids.add(bid);
+            if (bids.size() >= maxBids) {
+                sealed = true;
+                notifyAll();
+            }
+            return true;
+        }
+
+        /**
+         * Waits for the window or a full group, unless there is nothing to wait for, and
+         * seals the group.
+         */
+        synchronized List<GroupedBid> awaitAndSeal(boolean wait) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = wait ? windowNanos : 0;
+            try {
+                while (bids.size() < maxBids && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sealed = true;
+            return bids;
+        }
+    }
+}
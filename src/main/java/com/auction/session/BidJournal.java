@@ -0,0 +1,312 @@
+package com.auction.session;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal of accepted bids. A bid is acknowledged only after its record
+ * has been written here, so bids that were accepted but not yet persisted can be replayed
+ * after a crash. Each record is length-prefixed and checksummed; a torn record at the tail
+ * is discarded on open.
+ * <p>
+ * Appending only encodes the record in memory. {@link #awaitDurable(long)} writes and syncs
+ * every record appended so far in one go, so bids arriving while a sync is in progress share
+ * the next one instead of each paying for their own.
+ */
+public class BidJournal implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(BidJournal.class.getName());
+
+    // length + crc
+    private static final int HEADER_SIZE = 8;
+    // sequence, auctionId, bidderId, unscaled amount, scale, bidTime, ip length
+    private static final int FIXED_BODY_SIZE = 8 + 8 + 8 + 8 + 4 + 8 + 2;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean sync;
+    private final List<AcceptedBid> recovered;
+    private long nextSequence;
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long durableSequence;
+    private long writePosition;
+    private boolean writing;
+    private IOException failure;
+
+    public BidJournal(Path file, boolean sync) throws IOException {
+        this.file = file;
+        this.sync = sync;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recovered = recover();
+        this.nextSequence = recovered.isEmpty() ? 1 : recovered.get(recovered.size() - 1).getSequence() + 1;
+        this.durableSequence = nextSequence - 1;
+        this.writePosition = channel.size();
+    }
+
+    /**
+     * Records that were in the journal when it was opened, in append order.
+     */
+    public List<AcceptedBid> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Ensures new sequence numbers are above anything already persisted elsewhere, which
+     * matters once the journal has been truncated.
+     */
+    public synchronized void ensureSequenceAbove(long sequence) {
+        if (nextSequence <= sequence) {
+            nextSequence = sequence + 1;
+            if (pending.isEmpty()) {
+                durableSequence = sequence;
+            }
+        }
+    }
+
+    /**
+     * Assigns the bid its sequence and queues its record. The bid must not be acknowledged
+     * until {@link #awaitDurable(long)} returns for that sequence.
+     */
+    public synchronized AcceptedBid append(Long auctionId, Long bidderId, BigDecimal amount,
+                                           Date bidTime, String ipAddress) throws IOException {
+        if (failure != null) {
+            throw new IOException("Bid journal " + file + " failed earlier", failure);
+        }
+        AcceptedBid bid = new AcceptedBid(nextSequence, auctionId, bidderId, amount, bidTime, ipAddress);
+        pending.add(encode(bid));
+        nextSequence++;
+        return bid;
+    }
+
+    /**
+     * Returns once the record with the given sequence is on disk. The first caller to find
+     * no write in progress writes everything queued so far; the others wait for it.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        List<ByteBuffer> batch;
+        long batchSequence;
+        long position;
+        synchronized (this) {
+            while (durableSequence < sequence && writing && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for bid journal " + file);
+                }
+            }
+            if (durableSequence >= sequence) {
+                return;
+            }
+            if (failure != null) {
+                throw new IOException("Bid journal " + file + " failed earlier", failure);
+            }
+            writing = true;
+            batch = pending;
+            pending = new ArrayList<>();
+            batchSequence = nextSequence - 1;
+            position = writePosition;
+        }
+        long batchStart = position;
+
+        try {
+            for (ByteBuffer record : batch) {
+                while (record.hasRemaining()) {
+                    position += channel.write(record, position);
+                }
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // A failed sync may have lost any of the dirty pages, so nothing after it can be trusted.
+            // The batch was reported as failed, so it must not come back on replay either.
+            try {
+                channel.truncate(batchStart);
+            } catch (IOException truncateFailure) {
+                logger.severe("Unable to discard unsynced records from bid journal " + file + ": " +
+                        truncateFailure.getMessage());
+            }
+            synchronized (this) {
+                failure = e;
+                writing = false;
+                notifyAll();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            writePosition = position;
+            durableSequence = batchSequence;
+            writing = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Appends a bid that already carries its sequence and returns once it is on disk. Used
+     * for journals that keep a record of bids rather than hand out sequences.
+     */
+    public void appendDurable(AcceptedBid bid) throws IOException {
+        long sequence;
+        synchronized (this) {
+            if (failure != null) {
+                throw new IOException("Bid journal " + file + " failed earlier", failure);
+            }
+            pending.add(encode(bid));
+            sequence = nextSequence++;
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Highest sequence whose record is known to be on disk.
+     */
+    public synchronized long getDurableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Drops every record. Only safe once all of them are persisted.
+     */
+    public synchronized void truncate() throws IOException {
+        while (writing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for bid journal " + file);
+            }
+        }
+        channel.truncate(0);
+        channel.force(true);
+        pending.clear();
+        writePosition = 0;
+        // Anything still queued was persisted, which is as good as journaled
+        durableSequence = nextSequence - 1;
+        notifyAll();
+    }
+
+    public synchronized long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        long last;
+        boolean failed;
+        synchronized (this) {
+            last = nextSequence - 1;
+            failed = failure != null;
+        }
+        try {
+            if (!failed) {
+                awaitDurable(last);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private List<AcceptedBid> recover() throws IOException {
+        List<AcceptedBid> bids = new ArrayList<>();
+        long position = 0;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < FIXED_BODY_SIZE || position + HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(body, position + HEADER_SIZE);
+            if (crc(body.array(), length) != checksum) {
+                break;
+            }
+            body.flip();
+            bids.add(decode(body));
+            position += HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            logger.warning("Discarding " + (size - position) + " bytes of incomplete journal data in " + file);
+            channel.truncate(position);
+        }
+        return bids;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal " + file);
+            }
+        }
+    }
+
+    private static ByteBuffer encode(AcceptedBid bid) {
+        byte[] ip = bid.getIpAddress() != null ? bid.getIpAddress().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int length = FIXED_BODY_SIZE + ip.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+        buffer.position(HEADER_SIZE);
+        buffer.putLong(bid.getSequence());
+        buffer.putLong(bid.getAuctionId());
+        buffer.putLong(bid.getBidderId());
+        buffer.putLong(bid.getAmount().unscaledValue().longValueExact());
+        buffer.putInt(bid.getAmount().scale());
+        buffer.putLong(bid.getBidTime().getTime());
+        buffer.putShort((short) ip.length);
+        buffer.put(ip);
+
+        buffer.putInt(0, length);
+        buffer.putInt(4, crc(buffer.array(), HEADER_SIZE, length));
+        buffer.rewind();
+        return buffer;
+    }
+
+    private static AcceptedBid decode(ByteBuffer body) {
+        long sequence = body.getLong();
+        long auctionId = body.getLong();
+        long bidderId = body.getLong();
+        BigDecimal amount = new BigDecimal(BigInteger.valueOf(body.getLong()), body.getInt());
+        Date bidTime = new Date(body.getLong());
+        byte[] ip = new byte[body.getShort()];
+        body.get(ip);
+        return new AcceptedBid(sequence, auctionId, bidderId, amount, bidTime,
+                ip.length > 0 ? new String(ip, StandardCharsets.UTF_8) : null);
+    }
+
+    private static int crc(byte[] data, int length) {
+        return crc(data, 0, length);
+    }
+
+    private static int crc(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+}
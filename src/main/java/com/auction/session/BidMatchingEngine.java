@@ -0,0 +1,398 @@
+package com.auction.session;
+
+import com.auction.entity.Auction;
+import com.auction.entity.AuctionStatus;
+import com.auction.entity.Bid;
+import com.auction.entity.BidStatus;
+import com.auction.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Accepts or rejects bids against in-memory auction books and writes accepted bids to the
+ * database asynchronously, in journal order and in batches. Only bids whose journal record
+ * is on disk are written. A batch that keeps failing is retried with backoff a bounded
+ * number of times and then written bid by bid; bids that cannot be written, including
+ * replayed bids whose auction or bidder no longer exists, go to a dead-letter journal.
+ * Only active when {@link BidMode#ENGINE} is selected.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class BidMatchingEngine {
+
+    private static final Logger logger = Logger.getLogger(BidMatchingEngine.class.getName());
+
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("auction.engine.flushIntervalMs", 50L);
+    private static final int BATCH_SIZE = Integer.getInteger("auction.engine.batchSize", 500);
+    private static final long JOURNAL_ROLL_BYTES = Long.getLong("auction.engine.journalRollBytes", 64L * 1024 * 1024);
+    private static final int MAX_FLUSH_ATTEMPTS = Integer.getInteger("auction.engine.maxFlushAttempts", 10);
+    private static final long MAX_FLUSH_BACKOFF_MS = Long.getLong("auction.engine.maxFlushBackoffMs", 30_000L);
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    @EJB
+    private BidSessionBeanLocal bidSession;
+
+    @Resource
+    private TimerService timerService;
+
+    private final ConcurrentHashMap<Long, AuctionBook> books = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, User> bidders = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<AcceptedBid> writeQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final LongAdder deadLettered = new LongAdder();
+    private List<AcceptedBid> failedBatch;
+    private int failedAttempts;
+    private long retryAt;
+    private BidJournal journal;
+    private BidJournal deadLetters;
+    private boolean enabled;
+
+    @PostConstruct
+    public void initialize() {
+        enabled = BidMode.current() == BidMode.ENGINE;
+        if (!enabled) {
+            return;
+        }
+
+        logger.info("Initializing bid matching engine...");
+        try {
+            String directory = System.getProperty("auction.engine.journalDir",
+                    System.getProperty("jboss.server.data.dir", System.getProperty("java.io.tmpdir")));
+            journal = new BidJournal(Paths.get(directory, "auction", "bids.journal"),
+                    Boolean.parseBoolean(System.getProperty("auction.engine.journalSync", "true")));
+            deadLetters = new BidJournal(Paths.get(directory, "auction", "bids.deadletter"), true);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open bid journal", e);
+        }
+
+        loadActiveAuctionBooks();
+        replayJournal();
+
+        timerService.createIntervalTimer(FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, new TimerConfig(null, false));
+        logger.info("Bid matching engine initialized with " + books.size() + " auction books");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        try {
+            journal.close();
+            deadLetters.close();
+        } catch (IOException e) {
+            logger.warning("Error closing bid journal: " + e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Bid placeBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        AuctionBook book = getBook(auctionId);
+        if (book == null) {
+            throw new IllegalArgumentException("Auction not found");
+        }
+        User bidder = getBidder(bidderId);
+        if (bidder == null) {
+            throw new IllegalArgumentException("Bidder not found");
+        }
+
+        AcceptedBid accepted;
+        int bidCount;
+        synchronized (book) {
+            Date now = new Date();
+            book.validate(bidderId, amount, now.getTime());
+            try {
+                // The queue must see bids in journal order, or a crash could skip one on replay
+                synchronized (journal) {
+                    accepted = journal.append(auctionId, bidderId, amount, now, ipAddress);
+                    writeQueue.add(accepted);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to journal bid", e);
+            }
+            book.accept(bidderId, amount);
+            bidCount = book.getBidCount();
+        }
+
+        // Outside the book lock, so later bids on this auction can join the same sync
+        try {
+            journal.awaitDurable(accepted.getSequence());
+        } catch (IOException e) {
+            // The bid is never acknowledged, so it must not be written behind or stay priced in.
+            // The journal refuses further bids, so the book is simply dropped rather than undone.
+            writeQueue.remove(accepted);
+            books.remove(auctionId);
+            throw new IllegalStateException("Unable to journal bid", e);
+        }
+        return toBid(accepted, bidder, bidCount);
+    }
+
+    public BigDecimal getMinimumBidAmount(Long auctionId) {
+        AuctionBook book = books.get(auctionId);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            return book.getMinimumBid();
+        }
+    }
+
+    /**
+     * Drops the in-memory book of an auction that is no longer active.
+     */
+    public void evictBook(Long auctionId) {
+        books.remove(auctionId);
+    }
+
+    public int getPendingWrites() {
+        return writeQueue.size();
+    }
+
+    public long getDeadLetteredCount() {
+        return deadLettered.sum();
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void onFlushTimer(Timer timer) {
+        flush();
+    }
+
+    private void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (true) {
+                List<AcceptedBid> batch;
+                if (failedBatch != null) {
+                    if (System.currentTimeMillis() < retryAt) {
+                        return;
+                    }
+                    batch = failedBatch;
+                } else {
+                    batch = drainBatch();
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                try {
+                    deadLetter(bidSession.persistAcceptedBids(batch));
+                    failedBatch = null;
+                    failedAttempts = 0;
+                } catch (Exception e) {
+                    failedAttempts++;
+                    logger.severe("Error persisting " + batch.size() + " accepted bids (attempt " + failedAttempts +
+                            " of " + MAX_FLUSH_ATTEMPTS + "): " + e.getMessage());
+                    if (failedAttempts < MAX_FLUSH_ATTEMPTS) {
+                        // Keep the batch at the head so later bids are never written before it
+                        failedBatch = batch;
+                        retryAt = System.currentTimeMillis() +
+                                Math.min(FLUSH_INTERVAL_MS << failedAttempts, MAX_FLUSH_BACKOFF_MS);
+                        return;
+                    }
+                    failedBatch = null;
+                    failedAttempts = 0;
+                    persistOneByOne(batch);
+                }
+            }
+            rollJournalIfIdle();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * Takes the next bids in journal order, stopping at the first one not yet on disk. This
+     * is the only consumer of the queue, so the peeked bid is the one polled.
+     */
+    private List<AcceptedBid> drainBatch() {
+        List<AcceptedBid> batch = new ArrayList<>();
+        long durable = journal.getDurableSequence();
+        AcceptedBid bid;
+        while (batch.size() < BATCH_SIZE && (bid = writeQueue.peek()) != null && bid.getSequence() <= durable) {
+            batch.add(writeQueue.poll());
+        }
+        return batch;
+    }
+
+    /**
+     * Writes a batch that kept failing one bid per transaction, so only the bids that fail
+     * on their own are dead-lettered.
+     */
+    private void persistOneByOne(List<AcceptedBid> batch) {
+        for (AcceptedBid bid : batch) {
+            try {
+                deadLetter(bidSession.persistAcceptedBids(Collections.singletonList(bid)));
+            } catch (Exception e) {
+                logger.severe("Giving up on accepted bid " + bid + ": " + e.getMessage());
+                deadLetter(Collections.singletonList(bid));
+            }
+        }
+    }
+
+    private void deadLetter(List<AcceptedBid> bids) {
+        for (AcceptedBid bid : bids) {
+            try {
+                deadLetters.appendDurable(bid);
+                logger.warning("Dead-lettered accepted bid " + bid);
+            } catch (IOException e) {
+                logger.severe("Unable to dead-letter accepted bid " + bid + ": " + e.getMessage());
+            }
+            deadLettered.increment();
+        }
+    }
+
+    private void rollJournalIfIdle() {
+        try {
+            synchronized (journal) {
+                if (writeQueue.isEmpty() && journal.size() > JOURNAL_ROLL_BYTES) {
+                    journal.truncate();
+                    logger.info("Bid journal truncated after all accepted bids were persisted");
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Unable to truncate bid journal: " + e.getMessage());
+        }
+    }
+
+    private AuctionBook getBook(Long auctionId) {
+        AuctionBook book = books.get(auctionId);
+        if (book != null) {
+            return book;
+        }
+
+        Auction auction = em.find(Auction.class, auctionId);
+        if (auction == null) {
+            return null;
+        }
+        if (auction.getStatus() != AuctionStatus.ACTIVE) {
+            throw new IllegalStateException("Auction is not active");
+        }
+        AuctionBook loaded = new AuctionBook(auction.getAuctionId(), auction.getSeller().getUserId(),
+                auction.getCurrentPrice(), auction.getBidIncrement(), auction.getEndTime(),
+                auction.getBidCount());
+        AuctionBook existing = books.putIfAbsent(auctionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private User getBidder(Long bidderId) {
+        User bidder = bidders.get(bidderId);
+        if (bidder == null) {
+            bidder = em.find(User.class, bidderId);
+            if (bidder != null) {
+                em.detach(bidder);
+                bidders.put(bidderId, bidder);
+            }
+        }
+        return bidder;
+    }
+
+    private Bid toBid(AcceptedBid accepted, User bidder, int bidCount) {
+        Auction auction = new Auction();
+        auction.setAuctionId(accepted.getAuctionId());
+        auction.setCurrentPrice(accepted.getAmount());
+        auction.setBidCount(bidCount);
+
+        Bid bid = new Bid(auction, bidder, accepted.getAmount());
+        bid.setBidTime(accepted.getBidTime());
+        bid.setBidderIpAddress(accepted.getIpAddress());
+        bid.setJournalSequence(accepted.getSequence());
+        bid.setStatus(BidStatus.WINNING);
+        return bid;
+    }
+
+    private void loadActiveAuctionBooks() {
+        Query query = em.createQuery(
+                "SELECT a.auctionId, a.seller.userId, a.currentPrice, a.bidIncrement, a.endTime, " +
+                        "a.highestBidderId, a.highestBidAmount, a.bidCount FROM Auction a " +
+                        "WHERE a.status = :activeStatus"
+        );
+        query.setParameter("activeStatus", AuctionStatus.ACTIVE);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        for (Object[] result : results) {
+            Long auctionId = (Long) result[0];
+            AuctionBook book = new AuctionBook(auctionId, (Long) result[1],
+                    (BigDecimal) result[2], (BigDecimal) result[3], (Date) result[4], (Integer) result[7]);
+            if (result[5] != null) {
+                book.apply((Long) result[5], (BigDecimal) result[6]);
+            }
+            books.put(auctionId, book);
+        }
+    }
+
+    private void replayJournal() {
+        Long persisted = em.createQuery("SELECT MAX(b.journalSequence) FROM Bid b", Long.class).getSingleResult();
+        long lastPersisted = persisted != null ? persisted : 0L;
+        journal.ensureSequenceAbove(lastPersisted);
+
+        Set<Long> alreadyDeadLettered = new HashSet<>();
+        for (AcceptedBid bid : deadLetters.getRecovered()) {
+            alreadyDeadLettered.add(bid.getSequence());
+        }
+        List<AcceptedBid> unpersisted = new ArrayList<>();
+        Set<Long> auctionIds = new HashSet<>();
+        for (AcceptedBid bid : journal.getRecovered()) {
+            if (bid.getSequence() > lastPersisted && !alreadyDeadLettered.contains(bid.getSequence())) {
+                unpersisted.add(bid);
+                auctionIds.add(bid.getAuctionId());
+            }
+        }
+        if (unpersisted.isEmpty()) {
+            return;
+        }
+        // A journal that outlived its database (the schema is recreated on deploy) refers to
+        // auctions that are gone; those bids could never be written
+        Set<Long> existing = new HashSet<>(em.createQuery(
+                "SELECT a.auctionId FROM Auction a WHERE a.auctionId IN :auctionIds", Long.class)
+                .setParameter("auctionIds", auctionIds)
+                .getResultList());
+
+        int replayed = 0;
+        for (AcceptedBid bid : unpersisted) {
+            if (!existing.contains(bid.getAuctionId())) {
+                deadLetter(Collections.singletonList(bid));
+                continue;
+            }
+            AuctionBook book = books.get(bid.getAuctionId());
+            if (book != null) {
+                book.accept(bid.getBidderId(), bid.getAmount());
+            }
+            writeQueue.add(bid);
+            replayed++;
+        }
+
+        if (replayed > 0) {
+            logger.info("Replayed " + replayed + " journaled bids that were not yet persisted");
+        }
+    }
+}
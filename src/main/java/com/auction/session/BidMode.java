@@ -0,0 +1,30 @@
+package com.auction.session;
+
+import java.util.logging.Logger;
+
+/**
+ * Strategy used by {@link BidSessionBean#placeBid} to accept bids, selected with the
+ * {@code auction.bid.mode} system property.
+ */
+public enum BidMode {
+    /** Validate and persist each bid in its own transaction, serialized per auction. */
+    SEQUENCED,
+    /** Validate and persist each bid without locks, retrying on auction version conflicts. */
+    OPTIMISTIC,
+    /** Collect bids per auction over a short window and persist each group in one transaction. */
+    GROUP_COMMIT,
+    /** Accept bids against in-memory auction books and persist them asynchronously. */
+    ENGINE;
+
+    private static final Logger logger = Logger.getLogger(BidMode.class.getName());
+
+    public static BidMode current() {
+        String configured = System.getProperty("auction.bid.mode", SEQUENCED.name());
+        try {
+            return valueOf(configured.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Unknown bid mode '" + configured + "', falling back to " + SEQUENCED);
+            return SEQUENCED;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.auction.session;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes bids per auction while letting bids on different auctions run in parallel.
+ * Auction ids are hashed onto a fixed number of lock stripes, so memory stays constant
+ * no matter how many auctions are active. Stripes are semaphores rather than monitors
+ * because a permit is released when the bid transaction completes, which is not
+ * necessarily on the thread that acquired it.
+ */
+public class BidSequencer {
+
+    private final Semaphore[] stripes;
+    private final int mask;
+
+    public BidSequencer(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount));
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Semaphore[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            // Fair, so bids on the same auction are applied in arrival order
+            stripes[i] = new Semaphore(1, true);
+        }
+    }
+
+    public int stripeOf(Long auctionId) {
+        long hash = auctionId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public boolean tryAcquire(int stripe, long timeout, TimeUnit unit) throws InterruptedException {
+        return stripes[stripe].tryAcquire(timeout, unit);
+    }
+
+    public void release(int stripe) {
+        stripes[stripe].release();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+}
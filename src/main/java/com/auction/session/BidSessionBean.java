@@ -2,20 +2,30 @@ package com.auction.session;
 
 import com.auction.entity.Auction;
 import com.auction.entity.Bid;
+import com.auction.entity.BidAudit;
 import com.auction.entity.BidStatus;
+import com.auction.entity.OutboxDestination;
+import com.auction.entity.OutboxEvent;
+import com.auction.entity.ProxyBid;
 import com.auction.entity.User;
 import com.auction.messaging.BidMessage;
+import com.auction.messaging.BidMessageCodec;
 import jakarta.ejb.*;
-import jakarta.jms.*;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.annotation.Resource;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 
 import java.lang.IllegalStateException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 @Stateless
@@ -23,66 +33,420 @@ public class BidSessionBean implements BidSessionBeanLocal, BidSessionBeanRemote
 
     private static final Logger logger = Logger.getLogger(BidSessionBean.class.getName());
 
+    // Shared by every pooled instance; a per-instance lock would not serialize anything
+    private static final BidSequencer bidSequencer =
+            new BidSequencer(Integer.getInteger("auction.bid.lockStripes", 1024));
+    private static final long LOCK_TIMEOUT_MS = Long.getLong("auction.bid.lockTimeoutMs", 5000L);
+    private static final BidMode bidMode = BidMode.current();
+    private static final OptimisticRetry optimisticRetry =
+            new OptimisticRetry(Integer.getInteger("auction.bid.optimisticRetries", 5));
+    private static final String TRIGGER_MANUAL_BID = "MANUAL_BID";
+    private static final String TRIGGER_PROXY_REGISTERED = "PROXY_REGISTERED";
+    private static final BidGroupCommitter groupCommitter = new BidGroupCommitter(
+            Long.getLong("auction.bid.groupWindowMicros", 2000L), TimeUnit.MICROSECONDS,
+            Integer.getInteger("auction.bid.groupMaxBids", 64));
+
     @PersistenceContext(unitName = "auctionPU")
     private EntityManager em;
 
     @EJB
     private AuctionSessionBeanLocal auctionSession;
 
-    @Resource(mappedName = "java:comp/DefaultJMSConnectionFactory")
-    private ConnectionFactory connectionFactory;
+    @EJB
+    private BidMatchingEngine matchingEngine;
+
+    @EJB
+    private ProxyBidRegistry proxyBidRegistry;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    @Override
+    public Bid placeBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        try {
+            if (bidMode == BidMode.ENGINE) {
+                return matchingEngine.placeBid(auctionId, bidderId, amount, ipAddress);
+            }
+
+            Bid bid;
+            if (bidMode == BidMode.OPTIMISTIC) {
+                bid = placeBidOptimistically(auctionId, bidderId, amount, ipAddress);
+            } else if (bidMode == BidMode.GROUP_COMMIT) {
+                BidSessionBeanLocal self = sessionContext.getBusinessObject(BidSessionBeanLocal.class);
+                bid = groupCommitter.submit(new GroupedBid(auctionId, bidderId, amount, ipAddress),
+                        group -> self.placeBidGroup(auctionId, group));
+            } else {
+                holdAuctionUntilCompletion(auctionId);
+                bid = recordBid(auctionId, bidderId, amount, ipAddress);
+            }
+
+            logger.info("Bid placed successfully: " + amount + " on auction " + auctionId);
+            return bid;
+
+        } catch (BidConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.severe("Error placing bid: " + e.getMessage());
+            throw new RuntimeException("Failed to place bid", e);
+        }
+    }
+
+    /**
+     * One optimistic attempt in its own transaction; the auction's version column detects
+     * a concurrent bid at flush time. Only called through {@link #placeBidOptimistically}.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Bid placeBidAttempt(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        return recordBid(auctionId, bidderId, amount, ipAddress);
+    }
+
+    private Bid placeBidOptimistically(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        BidSessionBeanLocal self = sessionContext.getBusinessObject(BidSessionBeanLocal.class);
+        return optimisticRetry.run(auctionId, () -> self.placeBidAttempt(auctionId, bidderId, amount, ipAddress));
+    }
+
+    /**
+     * Resolves a group of bids on one auction in arrival order and persists the accepted
+     * ones in a single transaction. Each bid is validated against the price left by the
+     * bids before it, before anything is written for it; invalid bids are rejected
+     * individually without failing the group. Accepted bids are only reported once the
+     * transaction has committed.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void placeBidGroup(Long auctionId, List<GroupedBid> group) {
+        holdAuctionUntilCompletion(auctionId);
+
+        Auction auction = auctionSession.findAuctionById(auctionId);
+        List<GroupedBid> acceptedMembers = new ArrayList<>(group.size());
+        List<Bid> accepted = new ArrayList<>(group.size());
+        List<Bid> recorded = new ArrayList<>(group.size());
+
+        for (GroupedBid grouped : group) {
+            User bidder;
+            try {
+                if (auction == null) {
+                    throw new IllegalArgumentException("Auction not found");
+                }
+                bidder = em.find(User.class, grouped.getBidderId());
+                validateBid(auction, bidder, grouped.getBidderId(), grouped.getAmount());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                grouped.reject(e);
+                continue;
+            }
+
+            // Past validation a failure cannot be pinned on this bid alone: its writes are
+            // already in the group's transaction, so the whole group rolls back
+            Bid bid = new Bid(auction, bidder, grouped.getAmount());
+            bid.setBidderIpAddress(grouped.getIpAddress());
+            em.persist(bid);
+            updateWinningBid(auction, bid);
+            recorded.add(bid);
+
+            Bid proxyBid = applyProxyBids(auction, TRIGGER_MANUAL_BID);
+            if (proxyBid != null) {
+                recorded.add(proxyBid);
+            }
+
+            acceptedMembers.add(grouped);
+            accepted.add(bid);
+        }
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        acceptGroupOnCommit(group, acceptedMembers, accepted);
+        em.flush();
+
+        for (Bid bid : recorded) {
+            recordBidNotification(bid);
+        }
+
+        logger.fine("Committed group of " + group.size() + " bids on auction " + auctionId +
+                " with " + accepted.size() + " accepted");
+    }
+
+    private void acceptGroupOnCommit(List<GroupedBid> group, List<GroupedBid> members, List<Bid> bids) {
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    for (int i = 0; i < members.size(); i++) {
+                        members.get(i).accept(bids.get(i));
+                    }
+                } else {
+                    IllegalStateException failure = new IllegalStateException("Bid group was rolled back");
+                    for (GroupedBid member : group) {
+                        member.fail(failure);
+                    }
+                }
+            }
+        });
+    }
+
+    private Bid recordBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        Auction auction = auctionSession.findAuctionById(auctionId);
+        if (auction == null) {
+            throw new IllegalArgumentException("Auction not found");
+        }
+
+        User bidder = em.find(User.class, bidderId);
+        validateBid(auction, bidder, bidderId, amount);
+
+        // Create and persist bid
+        Bid bid = new Bid(auction, bidder, amount);
+        bid.setBidderIpAddress(ipAddress);
+        em.persist(bid);
+
+        // Outbid the previous winner and move price and bid statistics to the new one
+        updateWinningBid(auction, bid);
 
-    @Resource(mappedName = "java:comp/env/jms/BidTopic")
-    private Topic bidTopic;
+        // Let registered proxy bids answer in the same transaction
+        Bid proxyBid = applyProxyBids(auction, TRIGGER_MANUAL_BID);
+
+        em.flush();
+
+        // Queue real-time updates for publication after commit
+        recordBidNotification(bid);
+        if (proxyBid != null) {
+            recordBidNotification(proxyBid);
+        }
+
+        return bid;
+    }
 
     @Override
-    public synchronized Bid placeBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+    public Bid registerProxyBid(Long auctionId, Long bidderId, BigDecimal maxAmount, String ipAddress) {
         try {
+            if (bidMode == BidMode.ENGINE) {
+                throw new IllegalStateException("Proxy bidding is not available in engine mode");
+            }
+
+            holdAuctionUntilCompletion(auctionId);
+
             Auction auction = auctionSession.findAuctionById(auctionId);
             if (auction == null) {
                 throw new IllegalArgumentException("Auction not found");
             }
 
-            if (!auction.isActive()) {
-                throw new IllegalStateException("Auction is not active");
+            User bidder = em.find(User.class, bidderId);
+            validateBid(auction, bidder, bidderId, maxAmount);
+
+            ProxyBidBook book = proxyBidRegistry.getBook(auctionId);
+            evictProxyBookOnRollback(auctionId);
+
+            // A new maximum replaces the bidder's previous proxy
+            Long previousProxyBidId = book.getProxyBidId(bidderId);
+            if (previousProxyBidId != null) {
+                ProxyBid previous = em.find(ProxyBid.class, previousProxyBidId);
+                if (previous != null) {
+                    previous.setActive(false);
+                }
             }
 
-            // Validate bid amount
-            validateBidAmount(auction, amount);
+            ProxyBid proxyBid = new ProxyBid(auction, bidder, maxAmount);
+            em.persist(proxyBid);
+            book.register(proxyBid.getProxyBidId(), bidderId, maxAmount);
 
-            User bidder = em.find(User.class, bidderId);
-            if (bidder == null) {
-                throw new IllegalArgumentException("Bidder not found");
+            Bid bid = applyProxyBids(auction, TRIGGER_PROXY_REGISTERED);
+            // The resolved bid may belong to a competing proxy, which did not come from this address
+            if (bid != null && bidderId.equals(bid.getBidder().getUserId())) {
+                bid.setBidderIpAddress(ipAddress);
             }
 
-            // Check if bidder is the seller
-            if (auction.getSeller().getUserId().equals(bidderId)) {
-                throw new IllegalArgumentException("Seller cannot bid on their own auction");
+            em.flush();
+
+            if (bid != null) {
+                recordBidNotification(bid);
             }
 
-            // Create and persist bid
-            Bid bid = new Bid(auction, bidder, amount);
-            bid.setBidderIpAddress(ipAddress);
+            logger.info("Proxy bid registered: max " + maxAmount + " on auction " + auctionId);
+            return auction.getWinningBid();
+
+        } catch (BidConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.severe("Error registering proxy bid: " + e.getMessage());
+            throw new RuntimeException("Failed to register proxy bid", e);
+        }
+    }
+
+    /**
+     * Resolves the auction's proxy bids against its current leader and price in memory and
+     * persists only the outcome: one bid for the resulting leader plus an audit record.
+     * Returns that bid, or null when the proxies do not change the auction.
+     * <p>
+     * The book is shared, so this holds the auction's stripe until completion even in
+     * optimistic mode, where the version check alone would not stop two attempts from
+     * resolving the same book at once.
+     */
+    private Bid applyProxyBids(Auction auction, String triggeredBy) {
+        ProxyBidBook book = proxyBidRegistry.getBook(auction.getAuctionId());
+        if (book.isEmpty()) {
+            return null;
+        }
+        holdAuctionUntilCompletion(auction.getAuctionId());
+        evictProxyBookOnRollback(auction.getAuctionId());
+
+        BigDecimal previousPrice = auction.getCurrentPrice();
+        ProxyResolution resolution = book.resolve(auction.getHighestBidderId(), previousPrice,
+                auction.getBidIncrement());
+
+        if (!resolution.getExhaustedProxyBidIds().isEmpty()) {
+            Query query = em.createNamedQuery("ProxyBid.deactivate");
+            query.setParameter("proxyBidIds", resolution.getExhaustedProxyBidIds());
+            query.executeUpdate();
+        }
+
+        if (!resolution.isChanged()) {
+            return null;
+        }
+
+        User winner = em.find(User.class, resolution.getWinnerId());
+        Bid bid = new Bid(auction, winner, resolution.getPrice());
+        em.persist(bid);
+        updateWinningBid(auction, bid);
+
+        BidAudit audit = new BidAudit(auction, bid, triggeredBy);
+        audit.setPreviousPrice(previousPrice);
+        audit.setRunnerUpAmount(resolution.getRunnerUpAmount());
+        audit.setCompetingProxies(resolution.getCompetingProxies());
+        em.persist(audit);
+
+        return bid;
+    }
+
+    /**
+     * The proxy book is changed before commit, so a rollback must drop it and let the
+     * next bid reload the committed state.
+     */
+    private void evictProxyBookOnRollback(Long auctionId) {
+        String key = "proxyBook:" + auctionId;
+        if (transactionRegistry.getResource(key) != null) {
+            return;
+        }
+        transactionRegistry.putResource(key, Boolean.TRUE);
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    proxyBidRegistry.evict(auctionId);
+                }
+            }
+        });
+    }
+
+    private void validateBid(Auction auction, User bidder, Long bidderId, BigDecimal amount) {
+        if (!auction.isActive()) {
+            throw new IllegalStateException("Auction is not active");
+        }
+
+        // Validate bid amount
+        validateBidAmount(auction, amount);
+
+        if (bidder == null) {
+            throw new IllegalArgumentException("Bidder not found");
+        }
+
+        // Check if bidder is the seller
+        if (auction.getSeller().getUserId().equals(bidderId)) {
+            throw new IllegalArgumentException("Seller cannot bid on their own auction");
+        }
+    }
+
+    /**
+     * Writes bids accepted by the matching engine in one transaction, preserving their order.
+     * Returns the bids that can never be written because their auction or bidder no longer
+     * exists; the caller keeps those elsewhere instead of retrying them.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<AcceptedBid> persistAcceptedBids(List<AcceptedBid> acceptedBids) {
+        List<Bid> persisted = new ArrayList<>(acceptedBids.size());
+        List<AcceptedBid> orphaned = new ArrayList<>();
+
+        for (AcceptedBid accepted : acceptedBids) {
+            Auction auction = auctionSession.findAuctionById(accepted.getAuctionId());
+            User bidder = em.find(User.class, accepted.getBidderId());
+            if (auction == null || bidder == null) {
+                orphaned.add(accepted);
+                continue;
+            }
+
+            Bid bid = new Bid(auction, bidder, accepted.getAmount());
+            bid.setBidTime(accepted.getBidTime());
+            bid.setBidderIpAddress(accepted.getIpAddress());
+            bid.setJournalSequence(accepted.getSequence());
             em.persist(bid);
 
-            // Update auction current price
-            auction.setCurrentPrice(amount);
-            em.merge(auction);
+            updateWinningBid(auction, bid);
+            persisted.add(bid);
+        }
 
-            // Update previous bids status
-            updatePreviousBidsStatus(auction, bid);
+        em.flush();
 
-            em.flush();
+        for (Bid bid : persisted) {
+            recordBidNotification(bid);
+        }
 
-            // Send JMS message for real-time updates
-            sendBidNotification(bid);
+        logger.fine("Persisted " + persisted.size() + " accepted bids");
+        return orphaned;
+    }
 
-            logger.info("Bid placed successfully: " + amount + " on auction " + auctionId);
-            return bid;
+    /**
+     * Takes the auction's sequencer stripe and keeps it until the surrounding transaction
+     * commits or rolls back, so the next bid on the same auction always reads committed state.
+     */
+    private void holdAuctionUntilCompletion(Long auctionId) {
+        @SuppressWarnings("unchecked")
+        Set<Integer> heldStripes = (Set<Integer>) transactionRegistry.getResource(BidSequencer.class);
+        if (heldStripes == null) {
+            heldStripes = new HashSet<>();
+            transactionRegistry.putResource(BidSequencer.class, heldStripes);
+        }
 
-        } catch (Exception e) {
-            logger.severe("Error placing bid: " + e.getMessage());
-            throw new RuntimeException("Failed to place bid", e);
+        int stripe = bidSequencer.stripeOf(auctionId);
+        if (heldStripes.contains(stripe)) {
+            return;
+        }
+
+        try {
+            if (!bidSequencer.tryAcquire(stripe, LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new BidConflictException("Auction " + auctionId + " is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for auction " + auctionId);
+        }
+
+        try {
+            transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    bidSequencer.release(stripe);
+                }
+            });
+            heldStripes.add(stripe);
+        } catch (RuntimeException e) {
+            bidSequencer.release(stripe);
+            throw e;
         }
     }
 
@@ -93,40 +457,35 @@ public class BidSessionBean implements BidSessionBeanLocal, BidSessionBeanRemote
         }
     }
 
-    private void updatePreviousBidsStatus(Auction auction, Bid newBid) {
-        Query query = em.createQuery("UPDATE Bid b SET b.status = :outbidStatus WHERE b.auction = :auction AND b.status = :activeStatus AND b.bidId != :newBidId");
-        query.setParameter("outbidStatus", BidStatus.OUTBID);
-        query.setParameter("auction", auction);
-        query.setParameter("activeStatus", BidStatus.ACTIVE);
-        query.setParameter("newBidId", newBid.getBidId());
-        query.executeUpdate();
+    /**
+     * Only the current winner can be outbid, so flipping that one bid keeps every other
+     * bid's status correct without touching the auction's bid history.
+     */
+    private void updateWinningBid(Auction auction, Bid newBid) {
+        Bid previous = auction.getWinningBid();
+        if (previous != null && previous != newBid) {
+            previous.setStatus(BidStatus.OUTBID);
+        }
 
         // Set new bid as winning
         newBid.setStatus(BidStatus.WINNING);
+        auction.registerWinningBid(newBid);
     }
 
-    private void sendBidNotification(Bid bid) {
-        try (Connection connection = connectionFactory.createConnection();
-             Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)) {
-
-            MessageProducer producer = session.createProducer(bidTopic);
-
-            BidMessage bidMessage = new BidMessage();
-            bidMessage.setAuctionId(bid.getAuction().getAuctionId());
-            bidMessage.setBidAmount(bid.getAmount());
-            bidMessage.setBidderName(bid.getBidder().getFirstName() + " " + bid.getBidder().getLastName());
-            bidMessage.setBidTime(bid.getBidTime());
-
-            ObjectMessage message = session.createObjectMessage(bidMessage);
-            message.setJMSType("BidUpdate");
-            message.setStringProperty("auctionId", bid.getAuction().getAuctionId().toString());
-
-            producer.send(message);
-            logger.info("Bid notification sent for auction: " + bid.getAuction().getAuctionId());
-
-        } catch (JMSException e) {
-            logger.severe("Failed to send bid notification: " + e.getMessage());
-        }
+    /**
+     * Writes the notification to the outbox in the bid transaction; {@link OutboxDispatcher}
+     * publishes it after commit, so the bid path never waits on the broker and rolled-back
+     * bids are never announced.
+     */
+    private void recordBidNotification(Bid bid) {
+        BidMessage bidMessage = new BidMessage();
+        bidMessage.setAuctionId(bid.getAuction().getAuctionId());
+        bidMessage.setBidAmount(bid.getAmount());
+        bidMessage.setBidderName(bid.getBidder().getFirstName() + " " + bid.getBidder().getLastName());
+        bidMessage.setBidTime(bid.getBidTime());
+
+        em.persist(new OutboxEvent(OutboxDestination.BID_TOPIC, bidMessage.getAuctionId(),
+                "BidUpdate", BidMessageCodec.encode(bidMessage)));
     }
 
     @Override
@@ -143,18 +502,25 @@ public class BidSessionBean implements BidSessionBeanLocal, BidSessionBeanRemote
 
     @Override
     public Bid findHighestBid(Long auctionId) {
-        try {
-            Auction auction = auctionSession.findAuctionById(auctionId);
-            if (auction == null) {
-                return null;
-            }
-
-            Query query = em.createNamedQuery("Bid.findHighestBid");
-            query.setParameter("auction", auction);
-            return (Bid) query.getSingleResult();
-        } catch (NoResultException e) {
+        Auction auction = auctionSession.findAuctionById(auctionId);
+        if (auction == null) {
             return null;
         }
+
+        return auction.getWinningBid();
+    }
+
+    @Override
+    public List<Bid> findRecentBids(Long auctionId, int limit) {
+        Auction auction = auctionSession.findAuctionById(auctionId);
+        if (auction == null) {
+            throw new IllegalArgumentException("Auction not found");
+        }
+
+        Query query = em.createNamedQuery("Bid.findByAuction");
+        query.setParameter("auction", auction);
+        query.setMaxResults(limit);
+        return query.getResultList();
     }
 
     @Override
@@ -166,6 +532,13 @@ public class BidSessionBean implements BidSessionBeanLocal, BidSessionBeanRemote
 
     @Override
     public BigDecimal getMinimumBidAmount(Long auctionId) {
+        if (bidMode == BidMode.ENGINE) {
+            BigDecimal minimumBid = matchingEngine.getMinimumBidAmount(auctionId);
+            if (minimumBid != null) {
+                return minimumBid;
+            }
+        }
+
         Auction auction = auctionSession.findAuctionById(auctionId);
         if (auction == null) {
             throw new IllegalArgumentException("Auction not found");
@@ -9,8 +9,13 @@ import java.util.List;
 @Local
 public interface BidSessionBeanLocal {
     Bid placeBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress);
+    Bid registerProxyBid(Long auctionId, Long bidderId, BigDecimal maxAmount, String ipAddress);
     List<Bid> findBidsByUser(Long userId);
     BigDecimal getMinimumBidAmount(Long auctionId);
     Bid findHighestBid(Long auctionId);
     List<Bid> findBidsByAuction(Long auctionId);
+    List<Bid> findRecentBids(Long auctionId, int limit);
+    Bid placeBidAttempt(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress);
+    void placeBidGroup(Long auctionId, List<GroupedBid> group);
+    List<AcceptedBid> persistAcceptedBids(List<AcceptedBid> acceptedBids);
 }
\ No newline at end of file
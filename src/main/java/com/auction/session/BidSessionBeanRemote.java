@@ -9,7 +9,9 @@ import java.util.List;
 @Remote
 public interface BidSessionBeanRemote {
     Bid placeBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress);
+    Bid registerProxyBid(Long auctionId, Long bidderId, BigDecimal maxAmount, String ipAddress);
     List<Bid> findBidsByAuction(Long auctionId);
+    List<Bid> findRecentBids(Long auctionId, int limit);
     Bid findHighestBid(Long auctionId);
     List<Bid> findBidsByUser(Long userId);
     BigDecimal getMinimumBidAmount(Long auctionId);
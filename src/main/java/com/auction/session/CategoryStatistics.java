@@ -0,0 +1,154 @@
+package com.auction.session;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running market statistics for the active auctions of one category, maintained from bid
+ * and lifecycle events so that reading them never touches the database. Counters are
+ * {@link LongAdder}s and current prices are kept in a skip list ordered by price, so every
+ * read is lock-free. Callers serialize the updates for any one auction; updates for
+ * different auctions may run concurrently.
+ */
+public class CategoryStatistics {
+
+    private static final int VELOCITY_WINDOW_SECONDS = 60;
+
+    /**
+     * Current price of one auction, ordered by price and then by auction.
+     */
+    private static final class PricePoint implements Comparable<PricePoint> {
+        private final BigDecimal price;
+        private final long auctionId;
+
+        PricePoint(BigDecimal price, long auctionId) {
+            this.price = price;
+            this.auctionId = auctionId;
+        }
+
+        @Override
+        public int compareTo(PricePoint other) {
+            int result = price.compareTo(other.price);
+            return result != 0 ? result : Long.compare(auctionId, other.auctionId);
+        }
+    }
+
+    private final String category;
+    private final LongAdder activeCount = new LongAdder();
+    private final LongAdder totalBids = new LongAdder();
+    private final LongAdder pricedCount = new LongAdder();
+    private final LongAdder priceSumCents = new LongAdder();
+    private final ConcurrentSkipListMap<PricePoint, Boolean> prices = new ConcurrentSkipListMap<>();
+    // One bucket per second of the window, each stamped with the second it counts
+    private final AtomicLongArray bucketSeconds = new AtomicLongArray(VELOCITY_WINDOW_SECONDS);
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(VELOCITY_WINDOW_SECONDS);
+
+    public CategoryStatistics(String category) {
+        this.category = category;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    void addAuction(long auctionId, BigDecimal price, long bidCount) {
+        activeCount.increment();
+        totalBids.add(bidCount);
+        addPrice(auctionId, price);
+    }
+
+    void removeAuction(long auctionId, BigDecimal price, long bidCount) {
+        activeCount.decrement();
+        totalBids.add(-bidCount);
+        removePrice(auctionId, price);
+    }
+
+    void updatePrice(long auctionId, BigDecimal oldPrice, BigDecimal newPrice) {
+        removePrice(auctionId, oldPrice);
+        addPrice(auctionId, newPrice);
+    }
+
+    /**
+     * Counts bids that were just placed, including them in the bid velocity.
+     */
+    void recordBids(long count, long nowMillis) {
+        totalBids.add(count);
+        long second = nowMillis / 1000;
+        int bucket = (int) (second % VELOCITY_WINDOW_SECONDS);
+        long stamp = bucketSeconds.get(bucket);
+        if (stamp != second && bucketSeconds.compareAndSet(bucket, stamp, second)) {
+            // A bid counted between the stamp and the reset is lost; fine for a rate estimate
+            bucketCounts.set(bucket, 0);
+        }
+        bucketCounts.addAndGet(bucket, count);
+    }
+
+    /**
+     * Counts bids found during reconciliation, which are not part of the bid velocity.
+     */
+    void addBids(long count) {
+        totalBids.add(count);
+    }
+
+    public long getActiveCount() {
+        return activeCount.sum();
+    }
+
+    public long getTotalBids() {
+        return totalBids.sum();
+    }
+
+    /**
+     * Bids placed in this category during the last minute.
+     */
+    public long getBidsPerMinute() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int i = 0; i < VELOCITY_WINDOW_SECONDS; i++) {
+            if (now - bucketSeconds.get(i) < VELOCITY_WINDOW_SECONDS) {
+                total += bucketCounts.get(i);
+            }
+        }
+        return total;
+    }
+
+    public BigDecimal getMinPrice() {
+        Map.Entry<PricePoint, Boolean> lowest = prices.firstEntry();
+        return lowest != null ? lowest.getKey().price : null;
+    }
+
+    public BigDecimal getMaxPrice() {
+        Map.Entry<PricePoint, Boolean> highest = prices.lastEntry();
+        return highest != null ? highest.getKey().price : null;
+    }
+
+    public BigDecimal getMeanPrice() {
+        long count = pricedCount.sum();
+        if (count <= 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(priceSumCents.sum(), 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private void addPrice(long auctionId, BigDecimal price) {
+        if (price != null && prices.putIfAbsent(new PricePoint(price, auctionId), Boolean.TRUE) == null) {
+            pricedCount.increment();
+            priceSumCents.add(toCents(price));
+        }
+    }
+
+    private void removePrice(long auctionId, BigDecimal price) {
+        if (price != null && prices.remove(new PricePoint(price, auctionId)) != null) {
+            pricedCount.decrement();
+            priceSumCents.add(-toCents(price));
+        }
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+}
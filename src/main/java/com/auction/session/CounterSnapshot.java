@@ -0,0 +1,221 @@
+package com.auction.session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact local copy of the active auction counters, taken at a checkpoint time. A
+ * restart loads it and only reconciles the auctions changed since then, instead of
+ * rescanning every active auction. The file is written beside its final name and moved
+ * into place, so a crash mid-write leaves the previous snapshot intact; a trailing
+ * checksum rejects anything else. The header records the highest auction id and the
+ * auction row count at the checkpoint, so a snapshot taken against a database that has
+ * since been recreated can be recognised and ignored.
+ */
+public class CounterSnapshot {
+
+    private static final int MAGIC = 0x41435331;
+    private static final byte FORMAT_VERSION = 1;
+    private static final long END_OF_ENTRIES = -1L;
+
+    /**
+     * One active auction as it was at the checkpoint.
+     */
+    public static final class Entry {
+        private final long auctionId;
+        private final String category;
+        private final int bidCount;
+        private final BigDecimal currentPrice;
+
+        Entry(long auctionId, String category, int bidCount, BigDecimal currentPrice) {
+            this.auctionId = auctionId;
+            this.category = category;
+            this.bidCount = bidCount;
+            this.currentPrice = currentPrice;
+        }
+
+        public long getAuctionId() { return auctionId; }
+
+        public String getCategory() { return category; }
+
+        public int getBidCount() { return bidCount; }
+
+        public BigDecimal getCurrentPrice() { return currentPrice; }
+    }
+
+    /**
+     * Streams entries into a new snapshot. Nothing replaces the current snapshot until
+     * {@link #commit()}.
+     */
+    public static final class Writer implements Closeable {
+        private final Path file;
+        private final Path temp;
+        private final CRC32 crc = new CRC32();
+        private final FileOutputStream fileOut;
+        private final DataOutputStream out;
+        private int count;
+        private boolean committed;
+
+        private Writer(Path file, Date checkpointTime, long maxAuctionId, long auctionCount) throws IOException {
+            this.file = file;
+            this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.fileOut = new FileOutputStream(temp.toFile());
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(fileOut, crc), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(checkpointTime.getTime());
+            out.writeLong(maxAuctionId);
+            out.writeLong(auctionCount);
+        }
+
+        public void add(long auctionId, String category, int bidCount, BigDecimal currentPrice)
+                throws IOException {
+            out.writeLong(auctionId);
+            out.writeInt(bidCount);
+            if (category == null) {
+                out.writeShort(-1);
+            } else {
+                byte[] bytes = category.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            if (currentPrice == null || currentPrice.scale() < 0 || currentPrice.scale() > Byte.MAX_VALUE) {
+                out.writeByte(-1);
+            } else {
+                out.writeByte(currentPrice.scale());
+                out.writeLong(currentPrice.unscaledValue().longValueExact());
+            }
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void commit() throws IOException {
+            out.writeLong(END_OF_ENTRIES);
+            out.writeInt(count);
+            out.flush();
+            // The checksum covers everything above and is written outside it
+            int checksum = (int) crc.getValue();
+            out.writeInt(checksum);
+            out.flush();
+            fileOut.getFD().sync();
+            out.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private final Date checkpointTime;
+    private final long maxAuctionId;
+    private final long auctionCount;
+    private final List<Entry> entries;
+
+    private CounterSnapshot(Date checkpointTime, long maxAuctionId, long auctionCount, List<Entry> entries) {
+        this.checkpointTime = checkpointTime;
+        this.maxAuctionId = maxAuctionId;
+        this.auctionCount = auctionCount;
+        this.entries = entries;
+    }
+
+    public Date getCheckpointTime() {
+        return checkpointTime;
+    }
+
+    /**
+     * Highest auction id in the database when the snapshot was taken, 0 if there was none.
+     */
+    public long getMaxAuctionId() {
+        return maxAuctionId;
+    }
+
+    /**
+     * Number of auction rows, of any status, when the snapshot was taken.
+     */
+    public long getAuctionCount() {
+        return auctionCount;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public static Writer create(Path file, Date checkpointTime, long maxAuctionId, long auctionCount)
+            throws IOException {
+        return new Writer(file, checkpointTime, maxAuctionId, auctionCount);
+    }
+
+    /**
+     * Reads a snapshot, or returns null if there is none. Fails if the file is not a
+     * complete snapshot.
+     */
+    public static CounterSnapshot read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                throw new IOException("Not a counter snapshot: " + file);
+            }
+            Date checkpointTime = new Date(in.readLong());
+            long maxAuctionId = in.readLong();
+            long auctionCount = in.readLong();
+
+            List<Entry> entries = new ArrayList<>();
+            long auctionId;
+            while ((auctionId = in.readLong()) != END_OF_ENTRIES) {
+                int bidCount = in.readInt();
+                short length = in.readShort();
+                String category = null;
+                if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    category = new String(bytes, StandardCharsets.UTF_8);
+                }
+                byte scale = in.readByte();
+                BigDecimal currentPrice = scale >= 0 ? new BigDecimal(BigInteger.valueOf(in.readLong()), scale) : null;
+                entries.add(new Entry(auctionId, category, bidCount, currentPrice));
+            }
+            int count = in.readInt();
+            int expected = (int) crc.getValue();
+            if (count != entries.size() || new DataInputStream(raw).readInt() != expected) {
+                throw new IOException("Counter snapshot failed its checksum: " + file);
+            }
+            return new CounterSnapshot(checkpointTime, maxAuctionId, auctionCount, entries);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.auction.session;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of typed records split into fixed-size, memory-mapped segment files.
+ * Every record gets a dense, increasing offset; a segment file is named after the offset
+ * of its first record. Each segment keeps a sparse in-memory index from offset to file
+ * position, rebuilt by scanning when the log is opened, so a read seeks straight to the
+ * requested offset. Records are length-prefixed and checksummed like {@link BidJournal};
+ * the first torn record ends a segment. The oldest segments are deleted once the
+ * configured number of segments is exceeded.
+ */
+public class EventLog implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(EventLog.class.getName());
+
+    // length + crc
+    private static final int HEADER_SIZE = 8;
+    private static final int INDEX_INTERVAL = 32;
+    private static final String SUFFIX = ".log";
+
+    /**
+     * A record read back from the log.
+     */
+    public static final class Entry {
+        private final long offset;
+        private final byte type;
+        private final byte[] payload;
+
+        Entry(long offset, byte type, byte[] payload) {
+            this.offset = offset;
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public long getOffset() { return offset; }
+
+        public byte getType() { return type; }
+
+        public byte[] getPayload() { return payload; }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final CopyOnWriteArrayList<Segment> segments = new CopyOnWriteArrayList<>();
+
+    public EventLog(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+
+        List<Long> baseOffsets = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                baseOffsets.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+            }
+        }
+        Collections.sort(baseOffsets);
+        for (Long baseOffset : baseOffsets) {
+            segments.add(new Segment(baseOffset));
+        }
+        if (segments.isEmpty()) {
+            segments.add(new Segment(0L));
+        }
+    }
+
+    public synchronized long append(byte type, byte[] payload) throws IOException {
+        int length = 1 + payload.length;
+        if (HEADER_SIZE + length > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit in a segment");
+        }
+
+        Segment active = segments.get(segments.size() - 1);
+        if (active.size + HEADER_SIZE + length > segmentBytes) {
+            active = roll(active);
+        }
+        return active.append(type, payload);
+    }
+
+    /**
+     * Reads up to maxEntries records starting at the given offset. Offsets older than the
+     * retained segments start at the oldest record still available.
+     */
+    public List<Entry> read(long fromOffset, int maxEntries) {
+        List<Entry> entries = new ArrayList<>(Math.min(maxEntries, 1024));
+        List<Segment> snapshot = segments;
+        int index = findSegment(snapshot, fromOffset);
+        for (int i = index; i < snapshot.size() && entries.size() < maxEntries; i++) {
+            snapshot.get(i).read(fromOffset, maxEntries, entries);
+        }
+        return entries;
+    }
+
+    public long getStartOffset() {
+        return segments.get(0).baseOffset;
+    }
+
+    public long getNextOffset() {
+        Segment active = segments.get(segments.size() - 1);
+        return active.baseOffset + active.count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private Segment roll(Segment full) throws IOException {
+        full.buffer.force();
+        Segment next = new Segment(full.baseOffset + full.count);
+        segments.add(next);
+
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            oldest.close();
+            Files.deleteIfExists(oldest.file);
+            logger.info("Deleted event log segment " + oldest.file.getFileName());
+        }
+        return next;
+    }
+
+    private static int findSegment(List<Segment> snapshot, long offset) {
+        int low = 0;
+        int high = snapshot.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (snapshot.get(mid).baseOffset <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int crc(ByteBuffer buffer, int position, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.limit(position + length).position(position);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private final class Segment {
+        private final long baseOffset;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        // Positions of every INDEX_INTERVAL-th record, written before count is published
+        private volatile int[] index = new int[64];
+        private volatile int size;
+        private volatile int count;
+
+        Segment(long baseOffset) throws IOException {
+            this.baseOffset = baseOffset;
+            this.file = directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            recover();
+        }
+
+        long append(byte type, byte[] payload) {
+            int length = 1 + payload.length;
+            int position = size;
+            ByteBuffer target = buffer.duplicate();
+            target.position(position + HEADER_SIZE);
+            target.put(type);
+            target.put(payload);
+            buffer.putInt(position + 4, crc(buffer, position + HEADER_SIZE, length));
+            // Written last, so a record is only visible to recovery once it is complete
+            buffer.putInt(position, length);
+
+            indexRecord(count, position);
+            size = position + HEADER_SIZE + length;
+            count = count + 1;
+            return baseOffset + count - 1;
+        }
+
+        void read(long fromOffset, int maxEntries, List<Entry> entries) {
+            int available = count;
+            long relative = Math.max(0, fromOffset - baseOffset);
+            if (relative >= available) {
+                return;
+            }
+
+            int[] snapshot = index;
+            int slot = (int) Math.min(relative / INDEX_INTERVAL, (available - 1) / INDEX_INTERVAL);
+            slot = Math.min(slot, snapshot.length - 1);
+            int position = snapshot[slot];
+            ByteBuffer source = buffer.duplicate();
+
+            for (long record = (long) slot * INDEX_INTERVAL; record < available && entries.size() < maxEntries; record++) {
+                int length = source.getInt(position);
+                if (record >= relative) {
+                    byte[] payload = new byte[length - 1];
+                    source.position(position + HEADER_SIZE + 1);
+                    source.get(payload);
+                    entries.add(new Entry(baseOffset + record, source.get(position + HEADER_SIZE), payload));
+                }
+                position += HEADER_SIZE + length;
+            }
+        }
+
+        void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+
+        private void indexRecord(int record, int position) {
+            if (record % INDEX_INTERVAL != 0) {
+                return;
+            }
+            int slot = record / INDEX_INTERVAL;
+            int[] current = index;
+            if (slot >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                current[slot] = position;
+                index = current;
+            } else {
+                current[slot] = position;
+            }
+        }
+
+        private void recover() {
+            int position = 0;
+            int records = 0;
+            while (position + HEADER_SIZE <= segmentBytes) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_SIZE + length > segmentBytes
+                        || crc(buffer, position + HEADER_SIZE, length) != buffer.getInt(position + 4)) {
+                    break;
+                }
+                indexRecord(records, position);
+                position += HEADER_SIZE + length;
+                records++;
+            }
+
+            if (position + 4 <= segmentBytes && buffer.getInt(position) != 0) {
+                logger.warning("Discarding incomplete record at position " + position + " of " + file);
+                buffer.putInt(position, 0);
+            }
+            size = position;
+            count = records;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.auction.session;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded, time-expiring map split into independently locked segments. Every entry lives
+ * for the same time-to-live, so insertion order is also expiry order and each segment can
+ * evict from its head when it is full or its oldest entry has expired.
+ */
+public class ExpiringCache<K, V> {
+
+    private final List<Segment> segments;
+    private final long ttlMillis;
+
+    public ExpiringCache(int maxEntries, long ttlMillis, int segmentCount) {
+        this.ttlMillis = ttlMillis;
+        this.segments = new ArrayList<>(segmentCount);
+        int perSegment = Math.max(1, maxEntries / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments.add(new Segment(perSegment));
+        }
+    }
+
+    public V get(K key) {
+        return segmentFor(key).get(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Stores the value unless a live entry exists, and returns that entry's value if so.
+     */
+    public V putIfAbsent(K key, V value) {
+        return segmentFor(key).putIfAbsent(key, value, System.currentTimeMillis());
+    }
+
+    public void put(K key, V value) {
+        segmentFor(key).put(key, value, System.currentTimeMillis());
+    }
+
+    public void remove(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments.get((hash & Integer.MAX_VALUE) % segments.size());
+    }
+
+    private static final class Timed<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Timed(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final class Segment {
+        private final LinkedHashMap<K, Timed<V>> entries;
+
+        Segment(int maxEntries) {
+            this.entries = new LinkedHashMap<K, Timed<V>>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Timed<V>> eldest) {
+                    return size() > maxEntries || eldest.getValue().expiresAt <= System.currentTimeMillis();
+                }
+            };
+        }
+
+        synchronized V get(K key, long now) {
+            Timed<V> timed = entries.get(key);
+            if (timed == null) {
+                return null;
+            }
+            if (timed.expiresAt <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return timed.value;
+        }
+
+        synchronized V putIfAbsent(K key, V value, long now) {
+            V existing = get(key, now);
+            if (existing != null) {
+                return existing;
+            }
+            entries.put(key, new Timed<>(value, now + ttlMillis));
+            return null;
+        }
+
+        synchronized void put(K key, V value, long now) {
+            // Re-insert so the entry moves to the tail with its new expiry
+            entries.remove(key);
+            entries.put(key, new Timed<>(value, now + ttlMillis));
+        }
+
+        synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
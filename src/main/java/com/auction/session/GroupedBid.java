@@ -0,0 +1,64 @@
+package com.auction.session;
+
+import com.auction.entity.Bid;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A bid waiting in a {@link BidGroupCommitter} group, together with its eventual outcome.
+ */
+public class GroupedBid {
+
+    private final Long auctionId;
+    private final Long bidderId;
+    private final BigDecimal amount;
+    private final String ipAddress;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Bid bid;
+    private volatile RuntimeException rejection;
+
+    public GroupedBid(Long auctionId, Long bidderId, BigDecimal amount, String ipAddress) {
+        this.auctionId = auctionId;
+        this.bidderId = bidderId;
+        this.amount = amount;
+        this.ipAddress = ipAddress;
+    }
+
+    public Long getAuctionId() { return auctionId; }
+    public Long getBidderId() { return bidderId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getIpAddress() { return ipAddress; }
+
+    public void accept(Bid bid) {
+        this.bid = bid;
+    }
+
+    public void reject(RuntimeException rejection) {
+        this.rejection = rejection;
+    }
+
+    /**
+     * Replaces whatever outcome the bid had, because the group it was part of did not commit.
+     */
+    public void fail(RuntimeException failure) {
+        this.bid = null;
+        this.rejection = failure;
+    }
+
+    public boolean isResolved() {
+        return bid != null || rejection != null;
+    }
+
+    void complete() {
+        done.countDown();
+    }
+
+    Bid await() throws InterruptedException {
+        done.await();
+        if (rejection != null) {
+            throw rejection;
+        }
+        return bid;
+    }
+}
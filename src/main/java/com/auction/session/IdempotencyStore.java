@@ -0,0 +1,153 @@
+package com.auction.session;
+
+import com.auction.entity.IdempotencyRecord;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the outcome of bid requests by Idempotency-Key so client retries get the
+ * original response instead of placing the bid again. Recent keys are served from a
+ * bounded in-memory cache; older ones fall back to the idempotency_records table. Keys
+ * being processed are tracked apart from the cache, so eviction never lets a duplicate
+ * through, and a response is cached only once the transaction recording it commits.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class IdempotencyStore {
+
+    private static final Logger logger = Logger.getLogger(IdempotencyStore.class.getName());
+
+    private static final long RETENTION_MS = Long.getLong("auction.idempotency.retentionSeconds", 86400L) * 1000;
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    private final ExpiringCache<String, IdempotentResponse> cache = new ExpiringCache<>(
+            Integer.getInteger("auction.idempotency.cacheSize", 10000),
+            Long.getLong("auction.idempotency.cacheTtlSeconds", 600L) * 1000,
+            16);
+
+    private final ConcurrentHashMap<String, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder persistentHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the recorded response for the key, or the in-flight marker if a request with
+     * the key is being processed. Returns null when the caller should process the request;
+     * the caller then owns the key until {@link #complete} or {@link #release}.
+     */
+    public IdempotentResponse begin(Long auctionId, String idempotencyKey) {
+        String requestKey = requestKey(auctionId, idempotencyKey);
+
+        if (inFlight.putIfAbsent(requestKey, Boolean.TRUE) != null) {
+            cacheHits.increment();
+            return IdempotentResponse.IN_FLIGHT;
+        }
+
+        // A completed response is cached before its key leaves inFlight, so it is seen here
+        IdempotentResponse cached = cache.get(requestKey);
+        if (cached != null) {
+            inFlight.remove(requestKey);
+            cacheHits.increment();
+            return cached;
+        }
+
+        IdempotencyRecord record = em.find(IdempotencyRecord.class, requestKey);
+        if (record != null && record.getCreatedTime().getTime() > System.currentTimeMillis() - RETENTION_MS) {
+            IdempotentResponse stored = new IdempotentResponse(record.getStatusCode(), record.getResponseBody());
+            cache.put(requestKey, stored);
+            inFlight.remove(requestKey);
+            persistentHits.increment();
+            return stored;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Records the final response for the key. It is persisted in the caller's transaction,
+     * so it commits together with the bid it describes, and is served from memory only
+     * after that commit; a rollback releases the key instead.
+     */
+    public void complete(Long auctionId, String idempotencyKey, int statusCode, String body) {
+        String requestKey = requestKey(auctionId, idempotencyKey);
+        IdempotencyRecord record = em.find(IdempotencyRecord.class, requestKey);
+        if (record == null) {
+            em.persist(new IdempotencyRecord(requestKey, auctionId, statusCode, body));
+        } else {
+            record.setStatusCode(statusCode);
+            record.setResponseBody(body);
+            record.setCreatedTime(new Date());
+        }
+
+        IdempotentResponse response = new IdempotentResponse(statusCode, body);
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    cache.put(requestKey, response);
+                }
+                inFlight.remove(requestKey);
+            }
+        });
+    }
+
+    /**
+     * Gives up the key without recording a response, so a retry is processed normally.
+     */
+    public void release(Long auctionId, String idempotencyKey) {
+        inFlight.remove(requestKey(auctionId, idempotencyKey));
+    }
+
+    @Schedule(hour = "*", minute = "17", persistent = false)
+    public void purgeExpiredRecords() {
+        Query query = em.createNamedQuery("IdempotencyRecord.deleteOlderThan");
+        query.setParameter("cutoff", new Date(System.currentTimeMillis() - RETENTION_MS));
+        int purged = query.executeUpdate();
+        if (purged > 0) {
+            logger.info("Purged " + purged + " expired idempotency records");
+        }
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getPersistentHits() {
+        return persistentHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private String requestKey(Long auctionId, String idempotencyKey) {
+        // Keys are scoped to the auction so two clients cannot collide across auctions
+        return auctionId + ":" + idempotencyKey;
+    }
+}
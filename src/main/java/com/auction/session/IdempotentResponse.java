@@ -0,0 +1,28 @@
+package com.auction.session;
+
+import java.io.Serializable;
+
+/**
+ * The response recorded for an Idempotency-Key, or a marker that the first request with
+ * that key is still being processed.
+ */
+public class IdempotentResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final IdempotentResponse IN_FLIGHT = new IdempotentResponse(0, null);
+
+    private final int statusCode;
+    private final String body;
+
+    public IdempotentResponse(int statusCode, String body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    public boolean isInFlight() {
+        return this == IN_FLIGHT;
+    }
+
+    public int getStatusCode() { return statusCode; }
+    public String getBody() { return body; }
+}
@@ -0,0 +1,50 @@
+package com.auction.session;
+
+import jakarta.persistence.OptimisticLockException;
+
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs an optimistic bid attempt again when it loses the auction's version check, up to a
+ * fixed number of retries, then gives up with a {@link BidConflictException}. Each attempt
+ * must run in its own transaction; one that joined the caller's transaction would leave it
+ * rollback-only after the first conflict and every retry would fail.
+ */
+public class OptimisticRetry {
+
+    private static final Logger logger = Logger.getLogger(OptimisticRetry.class.getName());
+
+    private final int retries;
+
+    public OptimisticRetry(int retries) {
+        this.retries = Math.max(0, retries);
+    }
+
+    public <T> T run(Long auctionId, Supplier<T> attempt) {
+        for (int i = 0; i <= retries; i++) {
+            try {
+                return attempt.get();
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                logger.fine("Optimistic bid conflict on auction " + auctionId + ", attempt " + (i + 1));
+            }
+        }
+        throw new BidConflictException("Auction " + auctionId + " is receiving too many concurrent bids, please retry");
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
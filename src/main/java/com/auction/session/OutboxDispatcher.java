@@ -0,0 +1,112 @@
+package com.auction.session;
+
+import com.auction.entity.OutboxEvent;
+import com.auction.messaging.InMemoryNotificationTransport;
+import com.auction.messaging.NotificationException;
+import com.auction.messaging.NotificationTransport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Drains the outbox table to the configured {@link NotificationTransport} in batches. Rows are published strictly in id
+ * order and a batch stops at the first failure, so messages for an auction are never
+ * reordered. A row is deleted only after it has been sent; a crash in between re-sends it,
+ * which makes delivery at-least-once.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class OutboxDispatcher {
+
+    private static final Logger logger = Logger.getLogger(OutboxDispatcher.class.getName());
+
+    private static final long POLL_INTERVAL_MS = Long.getLong("auction.outbox.pollIntervalMs", 100L);
+    private static final int BATCH_SIZE = Integer.getInteger("auction.outbox.batchSize", 200);
+    private static final String JMS_TRANSPORT_NAME = "java:module/JmsNotificationTransport";
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    @EJB
+    private InMemoryNotificationTransport inMemoryTransport;
+
+    @EJB
+    private AuctionEventLog eventLog;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    @Resource
+    private TimerService timerService;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private NotificationTransport transport;
+
+    @PostConstruct
+    public void initialize() {
+        // Looked up by name so a memory-transport build, which leaves the JMS beans out, still deploys
+        transport = NotificationTransport.isInMemorySelected() ? inMemoryTransport
+                : (NotificationTransport) sessionContext.lookup(JMS_TRANSPORT_NAME);
+        timerService.createIntervalTimer(POLL_INTERVAL_MS, POLL_INTERVAL_MS, new TimerConfig(null, false));
+    }
+
+    /**
+     * Publishes one batch. Sends happen outside this transaction (the publisher does not
+     * join it); only the delete of the sent rows commits here.
+     */
+    @Timeout
+    public void dispatch(Timer timer) {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<OutboxEvent> batch = em.createNamedQuery("OutboxEvent.findPending", OutboxEvent.class)
+                    .setMaxResults(BATCH_SIZE)
+                    .getResultList();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<Long> sent = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                try {
+                    transport.publish(event);
+                } catch (NotificationException e) {
+                    failures.increment();
+                    logger.severe("Error publishing outbox event " + event.getOutboxEventId() + ": " + e.getMessage());
+                    break;
+                }
+                eventLog.append(event);
+                sent.add(event.getOutboxEventId());
+            }
+
+            if (!sent.isEmpty()) {
+                em.createNamedQuery("OutboxEvent.deleteByIds")
+                        .setParameter("outboxEventIds", sent)
+                        .executeUpdate();
+                dispatched.add(sent.size());
+            }
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+}
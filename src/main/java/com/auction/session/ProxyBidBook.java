@@ -0,0 +1,132 @@
+package com.auction.session;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Active proxy bids of one auction, ordered by maximum amount and then by registration
+ * order, so the strongest proxy and its runner-up are always at the head. Competing
+ * proxies are resolved in a single pass instead of bidding against each other one
+ * increment at a time.
+ */
+public class ProxyBidBook {
+
+    private static final Comparator<Entry> PRIORITY = Comparator
+            .comparing((Entry e) -> e.maxAmount).reversed()
+            .thenComparingLong(e -> e.sequence);
+
+    private final TreeSet<Entry> entries = new TreeSet<>(PRIORITY);
+    private final Map<Long, Entry> byBidder = new HashMap<>();
+    private long nextSequence;
+
+    public synchronized void register(Long proxyBidId, Long bidderId, BigDecimal maxAmount) {
+        Entry existing = byBidder.remove(bidderId);
+        if (existing != null) {
+            entries.remove(existing);
+        }
+        Entry entry = new Entry(proxyBidId, bidderId, maxAmount, nextSequence++);
+        entries.add(entry);
+        byBidder.put(bidderId, entry);
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Long getProxyBidId(Long bidderId) {
+        Entry entry = byBidder.get(bidderId);
+        return entry != null ? entry.proxyBidId : null;
+    }
+
+    /**
+     * Works out where competing proxies leave the auction, given its current leader and price.
+     * The leader keeps the lead on ties, and the winner pays one increment above the runner-up,
+     * capped at the winner's own maximum. Proxies that can no longer win are removed.
+     */
+    public synchronized ProxyResolution resolve(Long leaderId, BigDecimal price, BigDecimal increment) {
+        BigDecimal minimumBid = price.add(increment);
+        Entry leaderEntry = leaderId != null ? byBidder.get(leaderId) : null;
+        BigDecimal leaderMax = leaderEntry != null && leaderEntry.maxAmount.compareTo(price) > 0
+                ? leaderEntry.maxAmount : price;
+
+        Entry best = null;
+        Entry second = null;
+        for (Entry entry : entries) {
+            if (entry.bidderId.equals(leaderId)) {
+                continue;
+            }
+            if (best == null) {
+                best = entry;
+            } else {
+                second = entry;
+                break;
+            }
+        }
+
+        if (best == null || best.maxAmount.compareTo(minimumBid) < 0) {
+            return ProxyResolution.unchanged(leaderId, price, removeExhausted(leaderId, minimumBid));
+        }
+
+        Long winnerId;
+        BigDecimal runnerUp;
+        BigDecimal newPrice;
+        if (leaderId != null && best.maxAmount.compareTo(leaderMax) <= 0) {
+            // The leader's own proxy answers the challenge
+            winnerId = leaderId;
+            runnerUp = best.maxAmount;
+            newPrice = leaderMax.min(best.maxAmount.add(increment));
+        } else {
+            winnerId = best.bidderId;
+            runnerUp = leaderId != null ? leaderMax : null;
+            if (second != null && (runnerUp == null || second.maxAmount.compareTo(runnerUp) > 0)) {
+                runnerUp = second.maxAmount;
+            }
+            newPrice = runnerUp == null ? minimumBid : best.maxAmount.min(runnerUp.add(increment).max(minimumBid));
+        }
+
+        List<Long> exhausted = removeExhausted(winnerId, newPrice.add(increment));
+        return new ProxyResolution(winnerId, newPrice, runnerUp, true, entries.size() + exhausted.size(), exhausted);
+    }
+
+    private List<Long> removeExhausted(Long keepBidderId, BigDecimal nextMinimum) {
+        List<Long> exhausted = new ArrayList<>();
+        Iterator<Entry> iterator = entries.descendingIterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.maxAmount.compareTo(nextMinimum) >= 0) {
+                break;
+            }
+            if (entry.bidderId.equals(keepBidderId)) {
+                continue;
+            }
+            iterator.remove();
+            byBidder.remove(entry.bidderId);
+            exhausted.add(entry.proxyBidId);
+        }
+        return exhausted;
+    }
+
+    private static class Entry {
+        private final Long proxyBidId;
+        private final Long bidderId;
+        private final BigDecimal maxAmount;
+        private final long sequence;
+
+        Entry(Long proxyBidId, Long bidderId, BigDecimal maxAmount, long sequence) {
+            this.proxyBidId = proxyBidId;
+            this.bidderId = bidderId;
+            this.maxAmount = maxAmount;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.auction.session;
+
+import com.auction.entity.ProxyBid;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Holds the in-memory {@link ProxyBidBook} of each auction that has proxy bids. Books are
+ * loaded from the proxy_bids table on first use and evicted whenever a transaction that
+ * changed them rolls back, so they never drift from what was committed.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProxyBidRegistry {
+
+    private static final Logger logger = Logger.getLogger(ProxyBidRegistry.class.getName());
+
+    @PersistenceContext(unitName = "auctionPU")
+    private EntityManager em;
+
+    private final ConcurrentHashMap<Long, ProxyBidBook> books = new ConcurrentHashMap<>();
+
+    public ProxyBidBook getBook(Long auctionId) {
+        ProxyBidBook book = books.get(auctionId);
+        if (book != null) {
+            return book;
+        }
+
+        TypedQuery<ProxyBid> query = em.createNamedQuery("ProxyBid.findActiveByAuction", ProxyBid.class);
+        query.setParameter("auctionId", auctionId);
+        List<ProxyBid> proxyBids = query.getResultList();
+
+        ProxyBidBook loaded = new ProxyBidBook();
+        for (ProxyBid proxyBid : proxyBids) {
+            loaded.register(proxyBid.getProxyBidId(), proxyBid.getBidder().getUserId(), proxyBid.getMaxAmount());
+        }
+
+        ProxyBidBook existing = books.putIfAbsent(auctionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    public void evict(Long auctionId) {
+        if (books.remove(auctionId) != null) {
+            logger.fine("Evicted proxy bid book for auction " + auctionId);
+        }
+    }
+
+    public int getBookCount() {
+        return books.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.auction.session;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of resolving an auction's proxy bids: who leads, at what price, and which
+ * proxies dropped out because they can no longer win.
+ */
+public class ProxyResolution {
+
+    private final Long winnerId;
+    private final BigDecimal price;
+    private final BigDecimal runnerUpAmount;
+    private final boolean changed;
+    private final int competingProxies;
+    private final List<Long> exhaustedProxyBidIds;
+
+    public ProxyResolution(Long winnerId, BigDecimal price, BigDecimal runnerUpAmount, boolean changed,
+                           int competingProxies, List<Long> exhaustedProxyBidIds) {
+        this.winnerId = winnerId;
+        this.price = price;
+        this.runnerUpAmount = runnerUpAmount;
+        this.changed = changed;
+        this.competingProxies = competingProxies;
+        this.exhaustedProxyBidIds = exhaustedProxyBidIds;
+    }
+
+    static ProxyResolution unchanged(Long leaderId, BigDecimal price, List<Long> exhaustedProxyBidIds) {
+        return new ProxyResolution(leaderId, price, null, false, 0, exhaustedProxyBidIds);
+    }
+
+    public Long getWinnerId() { return winnerId; }
+    public BigDecimal getPrice() { return price; }
+    public BigDecimal getRunnerUpAmount() { return runnerUpAmount; }
+    public boolean isChanged() { return changed; }
+    public int getCompetingProxies() { return competingProxies; }
+    public List<Long> getExhaustedProxyBidIds() { return exhaustedProxyBidIds; }
+}
@@ -0,0 +1,156 @@
+package com.auction.session;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by an arbitrary id. Deadlines are rounded up to whole
+ * ticks; each of the four levels has 256 slots, with level n covering 256^(n+1) ticks, so
+ * a 250 ms tick reaches decades ahead. Scheduling and cancelling are O(1): a timer is a
+ * node in a doubly linked slot list and is found by key. Advancing the wheel visits one
+ * level-0 slot per tick and, every 256^n ticks, redistributes one slot of level n into the
+ * levels below it.
+ */
+public class TimerWheel<K> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Node[][] wheels = new Node[LEVELS][SLOTS];
+    private final Map<K, Node> timers = new HashMap<>();
+    private long currentTick;
+
+    public TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules (or reschedules) the key. Deadlines already in the past fire on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Node existing = timers.remove(key);
+        if (existing != null) {
+            unlink(existing);
+        }
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Node node = new Node(key, Math.max(tick, currentTick + 1));
+        timers.put(key, node);
+        insert(node, null);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node node = timers.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time and returns the keys whose deadline has passed.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<K> advance(long nowMillis) {
+        List<Node> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Redistribute the higher levels whose slot has come round, top down
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & MASK, expired);
+                }
+            }
+            Node node = detachSlot(0, (int) currentTick & MASK);
+            while (node != null) {
+                Node next = node.next;
+                node.next = null;
+                node.prev = null;
+                expired.add(node);
+                node = next;
+            }
+        }
+
+        List<K> keys = new ArrayList<>(expired.size());
+        for (Node node : expired) {
+            timers.remove((K) node.key);
+            keys.add((K) node.key);
+        }
+        return keys;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    private void cascade(int level, int slot, List<Node> expired) {
+        Node node = detachSlot(level, slot);
+        while (node != null) {
+            Node next = node.next;
+            node.next = null;
+            node.prev = null;
+            insert(node, expired);
+            node = next;
+        }
+    }
+
+    private void insert(Node node, List<Node> expired) {
+        long delta = node.tick - currentTick;
+        if (delta <= 0) {
+            expired.add(node);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) (node.tick >>> (SLOT_BITS * level)) & MASK;
+        node.level = level;
+        node.slot = slot;
+        node.next = wheels[level][slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        wheels[level][slot] = node;
+    }
+
+    private Node detachSlot(int level, int slot) {
+        Node head = wheels[level][slot];
+        wheels[level][slot] = null;
+        return head;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (wheels[node.level][node.slot] == node) {
+            wheels[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node {
+        private final Object key;
+        private final long tick;
+        private int level;
+        private int slot;
+        private Node prev;
+        private Node next;
+
+        Node(Object key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.auction.web;
+
+import com.auction.service.AuctionPushHub;
+import jakarta.ejb.EJB;
+import jakarta.ejb.EJBException;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.OnClose;
+import jakarta.websocket.OnError;
+import jakarta.websocket.OnMessage;
+import jakarta.websocket.OnOpen;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerEndpoint;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * WebSocket channel for clients watching several auctions. Clients send
+ * {"action":"subscribe","auctionIds":[1,2]} or {"action":"subscribe","category":"Art"}
+ * (and the matching "unsubscribe") and receive frames of the form
+ * {"d":[{"id":1,"p":"12.50","n":7,"t":"<1h"}]} holding only the fields that changed.
+ */
+@ServerEndpoint("/ws/auctions")
+public class AuctionPushEndpoint {
+
+    private static final Logger logger = Logger.getLogger(AuctionPushEndpoint.class.getName());
+
+    @EJB
+    private AuctionPushHub pushHub;
+
+    @OnOpen
+    public void onOpen(Session session) throws IOException {
+        if (!pushHub.open(session)) {
+            session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many connections"));
+        }
+    }
+
+    @OnMessage
+    public void onMessage(Session session, String text) {
+        try (JsonReader reader = Json.createReader(new StringReader(text))) {
+            JsonObject command = reader.readObject();
+            String action = command.getString("action", "");
+            boolean subscribe;
+            if ("subscribe".equals(action)) {
+                subscribe = true;
+            } else if ("unsubscribe".equals(action)) {
+                subscribe = false;
+            } else {
+                throw new IllegalArgumentException("Unknown action: " + action);
+            }
+
+            if (command.containsKey("auctionIds")) {
+                List<Long> auctionIds = toAuctionIds(command.getJsonArray("auctionIds"));
+                if (subscribe) {
+                    pushHub.subscribeAuctions(session, auctionIds);
+                } else {
+                    pushHub.unsubscribeAuctions(session, auctionIds);
+                }
+            }
+            if (command.containsKey("category")) {
+                if (subscribe) {
+                    pushHub.subscribeCategory(session, command.getString("category"));
+                } else {
+                    pushHub.unsubscribeCategory(session, command.getString("category"));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Limits enforced by the hub arrive wrapped by the container
+            Throwable cause = e instanceof EJBException && e.getCause() != null ? e.getCause() : e;
+            sendError(session, cause instanceof IllegalArgumentException ? cause.getMessage() : "Invalid command");
+        }
+    }
+
+    @OnClose
+    public void onClose(Session session) {
+        pushHub.close(session);
+    }
+
+    @OnError
+    public void onError(Session session, Throwable error) {
+        logger.fine("WebSocket error: " + error.getMessage());
+        pushHub.close(session);
+    }
+
+    private List<Long> toAuctionIds(JsonArray array) {
+        List<Long> auctionIds = new ArrayList<>(array.size());
+        for (JsonValue value : array) {
+            if (value.getValueType() != JsonValue.ValueType.NUMBER) {
+                throw new IllegalArgumentException("auctionIds must be numbers");
+            }
+            auctionIds.add(((JsonNumber) value).longValue());
+        }
+        return auctionIds;
+    }
+
+    private void sendError(Session session, String message) {
+        try {
+            session.getAsyncRemote().sendText(Json.createObjectBuilder()
+                    .add("error", message != null ? message : "Invalid command")
+                    .build()
+                    .toString());
+        } catch (RuntimeException e) {
+            logger.fine("Unable to send WebSocket error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.auction;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The memory-transport profile drops the JMS beans from the war so it deploys without a
+ * broker. That only works while nothing left in the war refers to them or to the JMS API,
+ * and the descriptor does not declare them. The patterns match the profile's packagingExcludes.
+ */
+class MemoryTransportPackagingTest {
+
+    private static final String[] EXCLUDED = {
+            "com/auction/messaging/Jms*.class",
+            "com/auction/messaging/*MDB.class"
+    };
+
+    @Test
+    void keptClassesDoNotReferenceJms() throws Exception {
+        Path root = classesRoot();
+        List<PathMatcher> excluded = new ArrayList<>();
+        for (String pattern : EXCLUDED) {
+            excluded.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        }
+
+        List<String> offenders = new ArrayList<>();
+        int excludedCount = 0;
+        try (Stream<Path> files = Files.walk(root.resolve("com/auction"))) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList())) {
+                Path relative = root.relativize(file);
+                if (excluded.stream().anyMatch(matcher -> matcher.matches(relative))) {
+                    excludedCount++;
+                    continue;
+                }
+                // Class names in the constant pool are stored as plain ASCII
+                String constants = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+                if (constants.contains("jakarta/jms/") || constants.contains("com/auction/messaging/Jms")
+                        || constants.matches("(?s).*com/auction/messaging/\\w+MDB.*")) {
+                    offenders.add(relative.toString());
+                }
+            }
+        }
+
+        assertEquals(5, excludedCount, "expected JmsPublisher, its MessageCreator, JmsNotificationTransport and two MDBs");
+        assertTrue(offenders.isEmpty(), "classes kept in a memory-transport build refer to JMS: " + offenders);
+    }
+
+    @Test
+    void descriptorDeclaresNoMessageDrivenBeans() throws Exception {
+        try (InputStream in = MemoryTransportPackagingTest.class.getResourceAsStream("/META-INF/ejb-jar.xml")) {
+            assertNotNull(in, "META-INF/ejb-jar.xml is not on the classpath");
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+            assertEquals(0, document.getElementsByTagName("message-driven").getLength());
+        }
+    }
+
+    private static Path classesRoot() throws Exception {
+        // The descriptor sits next to the main classes
+        return Paths.get(MemoryTransportPackagingTest.class.getResource("/META-INF/ejb-jar.xml").toURI())
+                .getParent().getParent();
+    }
+}
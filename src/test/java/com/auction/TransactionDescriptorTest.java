@@ -0,0 +1,163 @@
+package com.auction;
+
+import jakarta.ejb.MessageDriven;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Stateful;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The container-transaction entries in ejb-jar.xml override @TransactionAttribute, so the
+ * catch-all Required entry silently turns every REQUIRES_NEW or NOT_SUPPORTED method into
+ * Required unless the descriptor repeats it. This checks that the two agree.
+ */
+class TransactionDescriptorTest {
+
+    private static final String ANY = "*";
+
+    @Test
+    void descriptorKeepsEveryAnnotatedTransactionAttribute() throws Exception {
+        Map<String, TransactionAttributeType> descriptor = readContainerTransactions();
+        List<String> mismatches = new ArrayList<>();
+        int checked = 0;
+
+        for (Class<?> beanClass : findBeanClasses()) {
+            String ejbName = ejbNameOf(beanClass);
+            TransactionAttribute classAttribute = beanClass.getAnnotation(TransactionAttribute.class);
+            for (Method method : beanClass.getDeclaredMethods()) {
+                TransactionAttribute methodAttribute = method.getAnnotation(TransactionAttribute.class);
+                TransactionAttribute annotated = methodAttribute != null ? methodAttribute : classAttribute;
+                if (annotated == null || method.isSynthetic()) {
+                    continue;
+                }
+                checked++;
+                TransactionAttributeType effective = effectiveAttribute(descriptor, ejbName, method.getName());
+                if (effective != null && effective != annotated.value()) {
+                    mismatches.add(ejbName + "." + method.getName() + " is annotated " + annotated.value() +
+                            " but ejb-jar.xml makes it " + effective);
+                }
+            }
+        }
+
+        assertTrue(checked > 0, "no annotated transaction attributes found");
+        assertTrue(mismatches.isEmpty(), String.join("\n", mismatches));
+    }
+
+    @Test
+    void bidAttemptsRunInTheirOwnTransaction() throws Exception {
+        assertTrue(readContainerTransactions().get("BidSessionBean#placeBidAttempt")
+                == TransactionAttributeType.REQUIRES_NEW);
+    }
+
+    /**
+     * Method-specific entries win over a bean's "*" entry, which wins over the module-wide one.
+     */
+    private static TransactionAttributeType effectiveAttribute(Map<String, TransactionAttributeType> descriptor,
+                                                               String ejbName, String methodName) {
+        for (String key : new String[]{ejbName + "#" + methodName, ejbName + "#" + ANY, ANY + "#" + ANY}) {
+            TransactionAttributeType type = descriptor.get(key);
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, TransactionAttributeType> readContainerTransactions() throws Exception {
+        Map<String, TransactionAttributeType> result = new HashMap<>();
+        try (InputStream in = TransactionDescriptorTest.class.getResourceAsStream("/META-INF/ejb-jar.xml")) {
+            assertNotNull(in, "META-INF/ejb-jar.xml is not on the classpath");
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+            NodeList transactions = document.getElementsByTagName("container-transaction");
+            for (int i = 0; i < transactions.getLength(); i++) {
+                Element transaction = (Element) transactions.item(i);
+                TransactionAttributeType type = toType(text(transaction, "trans-attribute"));
+                NodeList methods = transaction.getElementsByTagName("method");
+                for (int j = 0; j < methods.getLength(); j++) {
+                    Element method = (Element) methods.item(j);
+                    String key = text(method, "ejb-name") + "#" + text(method, "method-name");
+                    assertFalse(result.containsKey(key), "duplicate container-transaction for " + key);
+                    result.put(key, type);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String text(Element parent, String tag) {
+        return parent.getElementsByTagName(tag).item(0).getTextContent().trim();
+    }
+
+    private static TransactionAttributeType toType(String value) {
+        switch (value) {
+            case "Required": return TransactionAttributeType.REQUIRED;
+            case "RequiresNew": return TransactionAttributeType.REQUIRES_NEW;
+            case "NotSupported": return TransactionAttributeType.NOT_SUPPORTED;
+            case "Supports": return TransactionAttributeType.SUPPORTS;
+            case "Mandatory": return TransactionAttributeType.MANDATORY;
+            case "Never": return TransactionAttributeType.NEVER;
+            default: throw new IllegalArgumentException("Unknown trans-attribute " + value);
+        }
+    }
+
+    private static String ejbNameOf(Class<?> beanClass) {
+        String name = "";
+        if (beanClass.isAnnotationPresent(Stateless.class)) {
+            name = beanClass.getAnnotation(Stateless.class).name();
+        } else if (beanClass.isAnnotationPresent(Singleton.class)) {
+            name = beanClass.getAnnotation(Singleton.class).name();
+        } else if (beanClass.isAnnotationPresent(Stateful.class)) {
+            name = beanClass.getAnnotation(Stateful.class).name();
+        } else if (beanClass.isAnnotationPresent(MessageDriven.class)) {
+            name = beanClass.getAnnotation(MessageDriven.class).name();
+        }
+        return name.isEmpty() ? beanClass.getSimpleName() : name;
+    }
+
+    private static List<Class<?>> findBeanClasses() throws Exception {
+        Path root = classesRoot();
+        List<Class<?>> beans = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root.resolve("com/auction"))) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList())) {
+                String name = root.relativize(file).toString().replace('/', '.').replace('\\', '.');
+                Class<?> type = Class.forName(name.substring(0, name.length() - ".class".length()), false,
+                        TransactionDescriptorTest.class.getClassLoader());
+                if (type.isAnnotationPresent(Stateless.class) || type.isAnnotationPresent(Singleton.class)
+                        || type.isAnnotationPresent(Stateful.class) || type.isAnnotationPresent(MessageDriven.class)) {
+                    beans.add(type);
+                }
+            }
+        }
+        assertFalse(beans.isEmpty(), "no session beans found under " + root);
+        return beans;
+    }
+
+    private static Path classesRoot() throws URISyntaxException {
+        // The descriptor sits next to the main classes
+        return Paths.get(TransactionDescriptorTest.class.getResource("/META-INF/ejb-jar.xml").toURI())
+                .getParent().getParent();
+    }
+}
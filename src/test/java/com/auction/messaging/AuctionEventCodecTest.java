@@ -0,0 +1,51 @@
+package com.auction.messaging;
+
+import com.auction.entity.AuctionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuctionEventCodecTest {
+
+    @Test
+    void roundTripsCurrentVersion() {
+        AuctionEvent original = new AuctionEvent(AuctionEventType.AUCTION_ENDED, 99L, "Électronique",
+                AuctionStatus.ACTIVE, AuctionStatus.ENDED, new BigDecimal("410.25"), new Date(1_700_000_000_000L));
+
+        AuctionEvent decoded = AuctionEventCodec.decode(AuctionEventCodec.encode(original));
+
+        assertEquals(original.getType(), decoded.getType());
+        assertEquals(original.getAuctionId(), decoded.getAuctionId());
+        assertEquals(original.getCategory(), decoded.getCategory());
+        assertEquals(original.getPreviousStatus(), decoded.getPreviousStatus());
+        assertEquals(original.getStatus(), decoded.getStatus());
+        assertEquals(original.getCurrentPrice(), decoded.getCurrentPrice());
+        assertEquals(original.getOccurredAt(), decoded.getOccurredAt());
+    }
+
+    @Test
+    void roundTripsMissingOptionalFields() {
+        AuctionEvent decoded = AuctionEventCodec.decode(AuctionEventCodec.encode(
+                new AuctionEvent(AuctionEventType.AUCTION_CREATED, 5L, null, null, AuctionStatus.PENDING,
+                        null, new Date(1000L))));
+
+        assertEquals(AuctionEventType.AUCTION_CREATED, decoded.getType());
+        assertNull(decoded.getCategory());
+        assertNull(decoded.getPreviousStatus());
+        assertNull(decoded.getCurrentPrice());
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        byte[] data = AuctionEventCodec.encode(new AuctionEvent(AuctionEventType.AUCTION_CANCELLED, 1L, null,
+                AuctionStatus.ACTIVE, AuctionStatus.CANCELLED, null, new Date()));
+        data[0] = (byte) (AuctionEventCodec.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> AuctionEventCodec.decode(data));
+    }
+}
@@ -0,0 +1,80 @@
+package com.auction.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidMessageCodecTest {
+
+    @Test
+    void roundTripsEveryField() {
+        BidMessage original = new BidMessage(42L, new BigDecimal("1234.56"), "Zoë Müller", new Date(1_700_000_000_123L));
+
+        BidMessage decoded = BidMessageCodec.decode(BidMessageCodec.encode(original));
+
+        assertEquals(original.getAuctionId(), decoded.getAuctionId());
+        assertEquals(original.getBidAmount(), decoded.getBidAmount());
+        assertEquals(original.getBidderName(), decoded.getBidderName());
+        assertEquals(original.getBidTime(), decoded.getBidTime());
+        assertEquals("BID_UPDATE", decoded.getMessageType());
+    }
+
+    @Test
+    void roundTripsMissingNameAndTime() {
+        BidMessage decoded = BidMessageCodec.decode(BidMessageCodec.encode(
+                new BidMessage(7L, new BigDecimal("10"), null, null)));
+
+        assertEquals(Long.valueOf(7L), decoded.getAuctionId());
+        assertEquals(new BigDecimal("10"), decoded.getBidAmount());
+        assertNull(decoded.getBidderName());
+        assertNull(decoded.getBidTime());
+    }
+
+    @Test
+    void keepsTheValueOfAmountsWithNegativeScale() {
+        BigDecimal amount = new BigDecimal("1E+3");
+
+        BidMessage decoded = BidMessageCodec.decode(BidMessageCodec.encode(
+                new BidMessage(1L, amount, "a", new Date())));
+
+        assertEquals(0, amount.compareTo(decoded.getBidAmount()));
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        byte[] data = BidMessageCodec.encode(new BidMessage(1L, BigDecimal.ONE, "a", new Date()));
+        data[0] = (byte) (BidMessageCodec.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> BidMessageCodec.decode(data));
+    }
+
+    @Test
+    void isSmallerThanObjectMessageSerialization() throws Exception {
+        BidMessage message = new BidMessage(123456L, new BigDecimal("250.75"), "Alice Johnson", new Date());
+
+        int binarySize = BidMessageCodec.encode(message).length;
+        int serializedSize = serialize(message).length;
+
+        assertTrue(binarySize * 4 < serializedSize, binarySize + " vs " + serializedSize + " bytes");
+    }
+
+    /**
+     * What ObjectMessage.setObject puts on the wire for the same message.
+     */
+    private static byte[] serialize(BidMessage message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+}
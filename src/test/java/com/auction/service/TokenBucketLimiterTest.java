@@ -0,0 +1,50 @@
+package com.auction.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsTheBurstThenAsksTheCallerToWait() {
+        // A slow rate, so no token is refilled while the test runs
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.001, 3, 100, 4);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void refundedTokensCanBeTakenAgain() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.001, 1, 100, 4);
+
+        assertEquals(0, limiter.tryAcquire(7L));
+        limiter.refund(7L);
+        assertEquals(0, limiter.tryAcquire(7L));
+        assertTrue(limiter.tryAcquire(7L) > 0);
+    }
+
+    @Test
+    void refundsNeverExceedTheBurst() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.001, 1, 100, 4);
+
+        assertEquals(0, limiter.tryAcquire(7L));
+        limiter.refund(7L);
+        limiter.refund(7L);
+        assertEquals(0, limiter.tryAcquire(7L));
+        assertTrue(limiter.tryAcquire(7L) > 0);
+    }
+
+    @Test
+    void rejectsRatesThatAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 10, 100, 4));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(-1, 10, 100, 4));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(Double.NaN, 10, 100, 4));
+    }
+}
@@ -0,0 +1,213 @@
+package com.auction.session;
+
+import com.auction.entity.AuctionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuctionManagerSingletonTest {
+
+    private static final int AUCTIONS = 1000;
+    private static final int BIDDERS = 4;
+    private static final String[] CATEGORIES = {"Art", "Books", "Electronics", "Music"};
+
+    @Test
+    void countsEveryBidRecordedConcurrently() throws Exception {
+        AuctionManagerSingleton manager = newManager();
+        int bidsPerBidder = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(BIDDERS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < BIDDERS; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < bidsPerBidder; i++) {
+                        manager.recordBids((long) ((i + offset) % AUCTIONS), 1, BigDecimal.valueOf(i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long perAuction = 0;
+        long perCategory = 0;
+        for (long auctionId = 0; auctionId < AUCTIONS; auctionId++) {
+            perAuction += manager.getBidCount(auctionId);
+        }
+        for (String category : CATEGORIES) {
+            perCategory += manager.getCategoryStatistics().get(category).getTotalBids();
+        }
+        assertEquals(BIDDERS * bidsPerBidder, perAuction);
+        assertEquals(BIDDERS * bidsPerBidder, manager.getTotalActiveBids());
+        assertEquals(BIDDERS * bidsPerBidder, perCategory);
+    }
+
+    @Test
+    void bidsArrivingAfterAnAuctionClosesDoNotBringItBack() {
+        AuctionManagerSingleton manager = newManager();
+        manager.recordBids(1L, 3, BigDecimal.TEN);
+        manager.unregisterActiveAuction(1L);
+
+        // A coalesced update and a duplicate ACTIVE event delivered after the ENDED event
+        manager.recordBids(1L, 2, BigDecimal.valueOf(20));
+        manager.registerActiveAuction(1L, CATEGORIES[1], 5, BigDecimal.valueOf(20));
+
+        assertEquals(0, (int) manager.getBidCount(1L));
+        assertEquals(0, manager.getTotalActiveBids());
+        assertEquals(AUCTIONS / CATEGORIES.length - 1, manager.getCategoryCount(CATEGORIES[1]));
+    }
+
+    @Test
+    void closedAuctionsLeaveTheTotalsConsistentUnderConcurrentBids() throws Exception {
+        AuctionManagerSingleton manager = newManager();
+        ExecutorService executor = Executors.newFixedThreadPool(BIDDERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < BIDDERS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 20; round++) {
+                        for (long auctionId = 0; auctionId < AUCTIONS; auctionId++) {
+                            manager.recordBids(auctionId, 1, BigDecimal.valueOf(round));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (long auctionId = 0; auctionId < AUCTIONS; auctionId += 2) {
+                manager.unregisterActiveAuction(auctionId);
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long perAuction = 0;
+        for (long auctionId = 0; auctionId < AUCTIONS; auctionId++) {
+            if (auctionId % 2 == 0) {
+                assertEquals(0, (int) manager.getBidCount(auctionId));
+            }
+            perAuction += manager.getBidCount(auctionId);
+        }
+        assertEquals(BIDDERS * 20 * AUCTIONS / 2, perAuction);
+        assertEquals(perAuction, manager.getTotalActiveBids());
+    }
+
+    @Test
+    void pagesStatusChangesByChangeTimeThenId() {
+        Date checkpoint = new Date(1_000_000L);
+        Date tied = new Date(checkpoint.getTime() + 1000);
+        // Three auctions changed in the same instant, straddling the first chunk boundary
+        StatusChanges manager = new StatusChanges(
+                change(10L, tied), change(11L, tied), change(12L, tied),
+                change(13L, new Date(tied.getTime() + 1)), change(14L, new Date(tied.getTime() + 2)));
+
+        assertEquals(5, manager.reconcileStatusChanges(manager, checkpoint, 2));
+
+        assertEquals(tied, manager.calls.get(1).since);
+        assertEquals(11L, (long) manager.calls.get(1).afterId);
+        for (long auctionId = 10; auctionId <= 14; auctionId++) {
+            assertEquals((int) auctionId, (int) manager.getBidCount(auctionId));
+        }
+        assertEquals(10 + 11 + 12 + 13 + 14, manager.getTotalActiveBids());
+    }
+
+    @Test
+    void overlapsThePreviousWindowToCatchLateCommits() {
+        Date checkpoint = new Date(1_000_000L);
+        // Stamped before the checkpoint but committed after the previous run had read past it
+        StatusChanges manager = new StatusChanges(change(20L, new Date(checkpoint.getTime() - 30_000)));
+
+        assertEquals(1, manager.reconcileStatusChanges(manager, checkpoint, 2));
+
+        // The default overlap is 60 seconds
+        assertEquals(new Date(checkpoint.getTime() - 60_000), manager.calls.get(0).since);
+        assertEquals(0L, (long) manager.calls.get(0).afterId);
+        assertEquals(20, (int) manager.getBidCount(20L));
+    }
+
+    @Test
+    void stopsPagingAfterAPartialChunk() {
+        Date checkpoint = new Date(1_000_000L);
+        StatusChanges partial = new StatusChanges(
+                change(1L, new Date(1_000_001L)), change(2L, new Date(1_000_002L)), change(3L, new Date(1_000_003L)));
+        assertEquals(3, partial.reconcileStatusChanges(partial, checkpoint, 2));
+        assertEquals(2, partial.calls.size());
+
+        // A last chunk that is exactly full needs one more, empty, read to know it was the last
+        StatusChanges full = new StatusChanges(change(1L, new Date(1_000_001L)), change(2L, new Date(1_000_002L)));
+        assertEquals(2, full.reconcileStatusChanges(full, checkpoint, 2));
+        assertEquals(2, full.calls.size());
+    }
+
+    private static Object[] change(Long auctionId, Date changedAt) {
+        return new Object[]{auctionId, CATEGORIES[0], AuctionStatus.ACTIVE, auctionId.intValue(), changedAt,
+                BigDecimal.ONE};
+    }
+
+    /**
+     * Serves findStatusChanges from a list with the query's ordering and keyset predicate,
+     * recording each call.
+     */
+    private static final class StatusChanges extends AuctionManagerSingleton {
+        private final List<Object[]> rows;
+        private final List<Call> calls = new ArrayList<>();
+
+        StatusChanges(Object[]... rows) {
+            this.rows = Arrays.asList(rows);
+        }
+
+        @Override
+        public List<Object[]> findStatusChanges(Date since, Long afterId, int max) {
+            calls.add(new Call(since, afterId));
+            return rows.stream()
+                    .filter(row -> ((Date) row[4]).after(since)
+                            || (row[4].equals(since) && (Long) row[0] > afterId))
+                    .sorted(Comparator.comparing((Object[] row) -> (Date) row[4]).thenComparing(row -> (Long) row[0]))
+                    .limit(max)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static final class Call {
+        private final Date since;
+        private final Long afterId;
+
+        Call(Date since, Long afterId) {
+            this.since = since;
+            this.afterId = afterId;
+        }
+    }
+
+    private static AuctionManagerSingleton newManager() {
+        AuctionManagerSingleton manager = new AuctionManagerSingleton();
+        for (long auctionId = 0; auctionId < AUCTIONS; auctionId++) {
+            manager.registerActiveAuction(auctionId, CATEGORIES[(int) (auctionId % CATEGORIES.length)], 0,
+                    BigDecimal.ONE);
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,132 @@
+package com.auction.session;
+
+import com.auction.entity.Bid;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidGroupCommitterTest {
+
+    private static final int BIDDERS = 4;
+
+    @Test
+    void everyBidSharesTheOutcomeOfAGroupThatDidNotCommit() throws Exception {
+        BidGroupCommitter committer = new BidGroupCommitter(200, TimeUnit.MILLISECONDS, BIDDERS);
+        IllegalStateException commitFailure = new IllegalStateException("commit failed");
+
+        List<Future<Bid>> results = submitAll(committer, BIDDERS, group -> {
+            // Resolve some bids as the bean does, then fail before the commit
+            group.get(0).accept(new Bid());
+            if (group.size() > 1) {
+                group.get(1).reject(new IllegalArgumentException("Bid amount too low"));
+            }
+            throw commitFailure;
+        });
+
+        for (Future<Bid> result : results) {
+            Exception thrown = assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertSame(commitFailure, thrown.getCause());
+        }
+    }
+
+    @Test
+    void bidsLeftUnresolvedAreRejected() throws Exception {
+        BidGroupCommitter committer = new BidGroupCommitter(200, TimeUnit.MILLISECONDS, BIDDERS);
+        Bid accepted = new Bid();
+        AtomicInteger groups = new AtomicInteger();
+
+        List<Future<Bid>> results = submitAll(committer, BIDDERS, group -> {
+            groups.incrementAndGet();
+            group.get(0).accept(accepted);
+        });
+
+        int acceptedCount = 0;
+        int rejectedCount = 0;
+        for (Future<Bid> result : results) {
+            try {
+                assertSame(accepted, result.get(10, TimeUnit.SECONDS));
+                acceptedCount++;
+            } catch (Exception e) {
+                rejectedCount++;
+            }
+        }
+        assertEquals(groups.get(), acceptedCount);
+        assertEquals(BIDDERS - groups.get(), rejectedCount);
+    }
+
+    @Test
+    void groupsNeverExceedTheirLimit() throws Exception {
+        int maxBids = 3;
+        BidGroupCommitter committer = new BidGroupCommitter(200, TimeUnit.MILLISECONDS, maxBids);
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+
+        submitAll(committer, 16, group -> {
+            sizes.add(group.size());
+            for (GroupedBid bid : group) {
+                bid.accept(new Bid());
+            }
+        });
+
+        assertEquals(16, sizes.stream().mapToInt(Integer::intValue).sum());
+        for (int size : sizes) {
+            assertTrue(size <= maxBids, "group of " + size + " bids");
+        }
+    }
+
+    @Test
+    void aLoneBidDoesNotWaitForTheWindow() throws Exception {
+        BidGroupCommitter committer = new BidGroupCommitter(1, TimeUnit.HOURS, BIDDERS);
+        Bid accepted = new Bid();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Bid> result = executor.submit(() -> committer.submit(
+                    new GroupedBid(1L, 2L, BigDecimal.TEN, null), group -> group.get(0).accept(accepted)));
+
+            assertSame(accepted, result.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Future<Bid>> submitAll(BidGroupCommitter committer, int bidders,
+                                               Consumer<List<GroupedBid>> commitAction) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(bidders);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Bid>> results = new ArrayList<>();
+            for (int i = 0; i < bidders; i++) {
+                long bidderId = i + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return committer.submit(new GroupedBid(1L, bidderId, BigDecimal.TEN, null), commitAction);
+                }));
+            }
+            start.countDown();
+            for (Future<Bid> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                } catch (Exception ignored) {
+                    // Outcomes are checked by the caller
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
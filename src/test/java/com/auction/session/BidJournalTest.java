@@ -0,0 +1,132 @@
+package com.auction.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidJournalTest {
+
+    private static final int THREADS = 8;
+    private static final int BIDS_PER_THREAD = 50;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentBidsAreAllDurableAndRecoveredInOrder() throws Exception {
+        Path file = directory.resolve("bids.journal");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (BidJournal journal = new BidJournal(file, true)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long auctionId = t + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < BIDS_PER_THREAD; i++) {
+                        AcceptedBid bid;
+                        synchronized (journal) {
+                            bid = journal.append(auctionId, 7L, new BigDecimal("10.50"), new Date(), "10.0.0.1");
+                        }
+                        journal.awaitDurable(bid.getSequence());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (BidJournal reopened = new BidJournal(file, true)) {
+            List<AcceptedBid> recovered = reopened.getRecovered();
+            assertEquals(THREADS * BIDS_PER_THREAD, recovered.size());
+            for (int i = 0; i < recovered.size(); i++) {
+                assertEquals(i + 1, recovered.get(i).getSequence());
+            }
+            assertEquals(new BigDecimal("10.50"), recovered.get(0).getAmount());
+            assertEquals("10.0.0.1", recovered.get(0).getIpAddress());
+        }
+    }
+
+    @Test
+    void closeWritesBidsThatWereNotAwaited() throws Exception {
+        Path file = directory.resolve("bids.journal");
+        try (BidJournal journal = new BidJournal(file, false)) {
+            journal.append(1L, 2L, BigDecimal.ONE, new Date(), null);
+            journal.append(1L, 3L, BigDecimal.TEN, new Date(), null);
+        }
+
+        try (BidJournal reopened = new BidJournal(file, false)) {
+            assertEquals(2, reopened.getRecovered().size());
+        }
+    }
+
+    @Test
+    void truncateReleasesQueuedBidsAndKeepsSequencesGoing() throws Exception {
+        Path file = directory.resolve("bids.journal");
+        try (BidJournal journal = new BidJournal(file, true)) {
+            AcceptedBid first = journal.append(1L, 2L, BigDecimal.ONE, new Date(), null);
+            journal.awaitDurable(first.getSequence());
+            AcceptedBid queued = journal.append(1L, 2L, BigDecimal.TEN, new Date(), null);
+
+            journal.truncate();
+            // Already covered by the truncate, so this must not block or write
+            journal.awaitDurable(queued.getSequence());
+            assertEquals(0, journal.size());
+
+            AcceptedBid next = journal.append(1L, 2L, new BigDecimal("11"), new Date(), null);
+            journal.awaitDurable(next.getSequence());
+            assertTrue(next.getSequence() > queued.getSequence());
+        }
+
+        try (BidJournal reopened = new BidJournal(file, true)) {
+            assertEquals(1, reopened.getRecovered().size());
+            assertEquals(3, reopened.getRecovered().get(0).getSequence());
+        }
+    }
+
+    @Test
+    void appendedBidsAreNotDurableUntilAwaited() throws Exception {
+        try (BidJournal journal = new BidJournal(directory.resolve("bids.journal"), false)) {
+            AcceptedBid first = journal.append(1L, 2L, BigDecimal.ONE, new Date(), null);
+            AcceptedBid second = journal.append(1L, 3L, BigDecimal.TEN, new Date(), null);
+            assertEquals(0, journal.getDurableSequence());
+
+            journal.awaitDurable(first.getSequence());
+            // Both were queued, so one write covers them
+            assertEquals(second.getSequence(), journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    void appendDurableKeepsTheBidsOwnSequence() throws Exception {
+        Path file = directory.resolve("bids.deadletter");
+        try (BidJournal deadLetters = new BidJournal(file, true)) {
+            deadLetters.appendDurable(new AcceptedBid(42L, 1L, 2L, BigDecimal.ONE, new Date(), null));
+            deadLetters.appendDurable(new AcceptedBid(17L, 1L, 3L, BigDecimal.TEN, new Date(), null));
+        }
+
+        try (BidJournal reopened = new BidJournal(file, true)) {
+            assertEquals(2, reopened.getRecovered().size());
+            assertEquals(42L, reopened.getRecovered().get(0).getSequence());
+            assertEquals(17L, reopened.getRecovered().get(1).getSequence());
+        }
+    }
+}
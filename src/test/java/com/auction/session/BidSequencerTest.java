@@ -0,0 +1,125 @@
+package com.auction.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidSequencerTest {
+
+    private static final int THREADS = 8;
+    private static final int BIDS_PER_THREAD = 25;
+
+    @Test
+    void roundsStripeCountUpToPowerOfTwo() {
+        assertEquals(1, new BidSequencer(0).getStripeCount());
+        assertEquals(8, new BidSequencer(5).getStripeCount());
+        assertEquals(1024, new BidSequencer(1024).getStripeCount());
+    }
+
+    @Test
+    void mapsEveryAuctionToAStripeInRange() {
+        BidSequencer sequencer = new BidSequencer(64);
+        for (long auctionId = 1; auctionId < 10_000; auctionId++) {
+            int stripe = sequencer.stripeOf(auctionId);
+            assertTrue(stripe >= 0 && stripe < 64, "stripe " + stripe + " for auction " + auctionId);
+            assertEquals(stripe, sequencer.stripeOf(auctionId));
+        }
+    }
+
+    @Test
+    void serializesBidsOnTheSameAuction() throws Exception {
+        BidSequencer sequencer = new BidSequencer(1024);
+        int[] price = new int[1];
+
+        runBids(sequencer, sameAuction(), () -> {
+            // Not atomic on purpose: only the stripe keeps increments from being lost
+            int current = price[0];
+            Thread.yield();
+            price[0] = current + 1;
+        });
+
+        assertEquals(THREADS * BIDS_PER_THREAD, price[0]);
+    }
+
+    @Test
+    void distinctAuctionsDoNotWaitForEachOther() throws Exception {
+        BidSequencer sequencer = new BidSequencer(1024);
+        long[] auctionIds = distinctAuctions(sequencer);
+
+        // Every auction's stripe can be held at once, while a second bid on one of them waits
+        for (long auctionId : auctionIds) {
+            assertTrue(sequencer.tryAcquire(sequencer.stripeOf(auctionId), 0, TimeUnit.MILLISECONDS));
+        }
+        assertFalse(sequencer.tryAcquire(sequencer.stripeOf(auctionIds[0]), 0, TimeUnit.MILLISECONDS));
+
+        for (long auctionId : auctionIds) {
+            sequencer.release(sequencer.stripeOf(auctionId));
+        }
+    }
+
+    private static long[] sameAuction() {
+        long[] auctionIds = new long[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            auctionIds[i] = 42L;
+        }
+        return auctionIds;
+    }
+
+    private static long[] distinctAuctions(BidSequencer sequencer) {
+        long[] auctionIds = new long[THREADS];
+        Set<Integer> stripes = new HashSet<>();
+        int found = 0;
+        for (long auctionId = 1; found < THREADS; auctionId++) {
+            if (stripes.add(sequencer.stripeOf(auctionId))) {
+                auctionIds[found++] = auctionId;
+            }
+        }
+        return auctionIds;
+    }
+
+    /**
+     * Runs one thread per entry, each placing its bids on that auction under the
+     * auction's stripe.
+     */
+    private static void runBids(BidSequencer sequencer, long[] auctionIds, Runnable bid) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(auctionIds.length);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (long auctionId : auctionIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int stripe = sequencer.stripeOf(auctionId);
+                    for (int i = 0; i < BIDS_PER_THREAD; i++) {
+                        assertTrue(sequencer.tryAcquire(stripe, 10, TimeUnit.SECONDS));
+                        try {
+                            bid.run();
+                        } finally {
+                            sequencer.release(stripe);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.auction.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CategoryStatisticsTest {
+
+    @Test
+    void velocityCountsOnlyTheLastMinute() {
+        CategoryStatistics statistics = new CategoryStatistics("Books");
+        long now = System.currentTimeMillis();
+
+        // Same bucket as now, one lap of the window earlier: reset when now is recorded
+        statistics.recordBids(7, now - 60_000);
+        // A bucket of its own, left out only because its stamp is older than the window
+        statistics.recordBids(4, now - 90_000);
+        statistics.recordBids(3, now);
+        statistics.recordBids(2, now - 1000);
+        // Reconciled bids are counted but were not placed just now
+        statistics.addBids(10);
+
+        assertEquals(5, statistics.getBidsPerMinute());
+        assertEquals(26, statistics.getTotalBids());
+    }
+
+    @Test
+    void minAndMaxFollowTheCurrentPrices() {
+        CategoryStatistics statistics = new CategoryStatistics("Books");
+        statistics.addAuction(1L, new BigDecimal("10.00"), 0);
+        statistics.addAuction(2L, new BigDecimal("5.50"), 0);
+        statistics.addAuction(3L, new BigDecimal("5.50"), 0);
+        statistics.addAuction(4L, new BigDecimal("20.00"), 0);
+
+        assertEquals(new BigDecimal("5.50"), statistics.getMinPrice());
+        assertEquals(new BigDecimal("20.00"), statistics.getMaxPrice());
+
+        // Two auctions share the lowest price, so it stays until both have moved
+        statistics.updatePrice(2L, new BigDecimal("5.50"), new BigDecimal("12.00"));
+        assertEquals(new BigDecimal("5.50"), statistics.getMinPrice());
+        statistics.updatePrice(3L, new BigDecimal("5.50"), new BigDecimal("25.00"));
+        assertEquals(new BigDecimal("10.00"), statistics.getMinPrice());
+        assertEquals(new BigDecimal("25.00"), statistics.getMaxPrice());
+
+        statistics.removeAuction(3L, new BigDecimal("25.00"), 0);
+        assertEquals(new BigDecimal("20.00"), statistics.getMaxPrice());
+    }
+
+    @Test
+    void meanIsExactInCents() {
+        CategoryStatistics statistics = new CategoryStatistics("Books");
+        statistics.addAuction(1L, new BigDecimal("0.10"), 0);
+        statistics.addAuction(2L, new BigDecimal("0.20"), 0);
+        assertEquals(new BigDecimal("0.15"), statistics.getMeanPrice());
+
+        // Prices are rounded to cents as they are added: 1.005 counts as 1.01
+        statistics.addAuction(3L, new BigDecimal("1.005"), 0);
+        assertEquals(new BigDecimal("0.44"), statistics.getMeanPrice());
+
+        // Auctions without a price are counted but not averaged
+        statistics.addAuction(4L, null, 0);
+        assertEquals(new BigDecimal("0.44"), statistics.getMeanPrice());
+        assertEquals(4, statistics.getActiveCount());
+    }
+
+    @Test
+    void removingEveryAuctionUndoesAddingThem() {
+        CategoryStatistics statistics = new CategoryStatistics("Books");
+        BigDecimal[] prices = {new BigDecimal("3.00"), new BigDecimal("7.25"), null, new BigDecimal("7.25")};
+        for (int i = 0; i < prices.length; i++) {
+            statistics.addAuction(i, prices[i], i * 3);
+        }
+        statistics.updatePrice(0L, prices[0], new BigDecimal("4.00"));
+        prices[0] = new BigDecimal("4.00");
+
+        for (int i = 0; i < prices.length; i++) {
+            statistics.removeAuction(i, prices[i], i * 3);
+        }
+
+        assertEquals(0, statistics.getActiveCount());
+        assertEquals(0, statistics.getTotalBids());
+        assertNull(statistics.getMinPrice());
+        assertNull(statistics.getMaxPrice());
+        assertNull(statistics.getMeanPrice());
+    }
+}
@@ -0,0 +1,64 @@
+package com.auction.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CounterSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsTheDatabaseIdentityAndEntries() throws IOException {
+        Path file = directory.resolve("counters.snapshot");
+        try (CounterSnapshot.Writer writer = CounterSnapshot.create(file, new Date(1_700_000_000_000L), 4711L, 4200L)) {
+            writer.add(12L, "Books", 3, new BigDecimal("19.50"));
+            writer.add(4711L, null, 0, null);
+            writer.commit();
+        }
+
+        CounterSnapshot snapshot = CounterSnapshot.read(file);
+
+        assertEquals(new Date(1_700_000_000_000L), snapshot.getCheckpointTime());
+        assertEquals(4711L, snapshot.getMaxAuctionId());
+        assertEquals(4200L, snapshot.getAuctionCount());
+        assertEquals(2, snapshot.getEntries().size());
+        CounterSnapshot.Entry first = snapshot.getEntries().get(0);
+        assertEquals(12L, first.getAuctionId());
+        assertEquals("Books", first.getCategory());
+        assertEquals(3, first.getBidCount());
+        assertEquals(new BigDecimal("19.50"), first.getCurrentPrice());
+        assertNull(snapshot.getEntries().get(1).getCategory());
+        assertNull(snapshot.getEntries().get(1).getCurrentPrice());
+    }
+
+    @Test
+    void rejectsUnknownFormatVersions() throws IOException {
+        Path file = directory.resolve("counters.snapshot");
+        try (CounterSnapshot.Writer writer = CounterSnapshot.create(file, new Date(), 1L, 1L)) {
+            writer.commit();
+        }
+        // A snapshot this build cannot read must fall back to a full load
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(4);
+            raw.writeByte(2);
+        }
+
+        assertThrows(IOException.class, () -> CounterSnapshot.read(file));
+    }
+
+    @Test
+    void returnsNullWhenThereIsNoSnapshot() throws IOException {
+        assertNull(CounterSnapshot.read(directory.resolve("missing.snapshot")));
+    }
+}
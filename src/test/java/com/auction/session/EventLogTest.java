@@ -0,0 +1,131 @@
+package com.auction.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLogTest {
+
+    private static final byte TYPE = 2;
+
+    // 4-byte length + 4-byte crc + 1 type byte + 8-byte payload
+    private static final int RECORD_BYTES = 17;
+    private static final int SEGMENT_BYTES = RECORD_BYTES * 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsIntoNewSegmentsAndReadsAcrossThem() throws Exception {
+        try (EventLog log = new EventLog(directory, SEGMENT_BYTES, 16)) {
+            for (long i = 0; i < 350; i++) {
+                assertEquals(i, log.append(TYPE, payload(i)));
+            }
+            assertEquals(4, segmentFiles());
+            assertInOrder(log.read(0, 1000), 0, 350);
+        }
+
+        try (EventLog reopened = new EventLog(directory, SEGMENT_BYTES, 16)) {
+            assertEquals(0, reopened.getStartOffset());
+            assertEquals(350, reopened.getNextOffset());
+            assertInOrder(reopened.read(95, 10), 95, 10);
+        }
+    }
+
+    @Test
+    void readsFromAnyOffsetThroughTheSparseIndex() throws Exception {
+        // Enough records in one segment to grow the index past its initial size
+        int records = 3000;
+        try (EventLog log = new EventLog(directory, RECORD_BYTES * records, 1)) {
+            for (long i = 0; i < records; i++) {
+                log.append(TYPE, payload(i));
+            }
+            assertReadsFromEveryOffset(log, records);
+        }
+
+        try (EventLog reopened = new EventLog(directory, RECORD_BYTES * records, 1)) {
+            assertReadsFromEveryOffset(reopened, records);
+        }
+    }
+
+    @Test
+    void discardsATornRecordOnRecovery() throws Exception {
+        try (EventLog log = new EventLog(directory, SEGMENT_BYTES, 16)) {
+            for (long i = 0; i < 10; i++) {
+                log.append(TYPE, payload(i));
+            }
+        }
+
+        // Corrupt the payload of the last record so its checksum no longer matches
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(String.format("%020d.log", 0)).toFile(), "rw")) {
+            long position = 9L * RECORD_BYTES + RECORD_BYTES - 1;
+            file.seek(position);
+            int original = file.read();
+            file.seek(position);
+            file.write(original ^ 0xFF);
+        }
+
+        try (EventLog reopened = new EventLog(directory, SEGMENT_BYTES, 16)) {
+            assertEquals(9, reopened.getNextOffset());
+            assertInOrder(reopened.read(0, 100), 0, 9);
+            assertEquals(9, reopened.append(TYPE, payload(9)));
+            assertInOrder(reopened.read(0, 100), 0, 10);
+        }
+    }
+
+    @Test
+    void deletesTheOldestSegmentsBeyondTheRetainedCount() throws Exception {
+        try (EventLog log = new EventLog(directory, SEGMENT_BYTES, 2)) {
+            for (long i = 0; i < 450; i++) {
+                log.append(TYPE, payload(i));
+            }
+            assertEquals(2, segmentFiles());
+            assertEquals(300, log.getStartOffset());
+            assertEquals(450, log.getNextOffset());
+
+            // Offsets that were deleted start at the oldest retained record
+            assertInOrder(log.read(0, 1000), 300, 150);
+        }
+    }
+
+    private static void assertReadsFromEveryOffset(EventLog log, int records) {
+        for (int from = 0; from < records; from++) {
+            List<EventLog.Entry> entries = log.read(from, 3);
+            assertInOrder(entries, from, Math.min(3, records - from));
+        }
+        assertTrue(log.read(records, 3).isEmpty());
+    }
+
+    private static void assertInOrder(List<EventLog.Entry> entries, long firstOffset, int count) {
+        assertEquals(count, entries.size());
+        for (int i = 0; i < count; i++) {
+            EventLog.Entry entry = entries.get(i);
+            assertEquals(firstOffset + i, entry.getOffset());
+            assertEquals(TYPE, entry.getType());
+            assertEquals(firstOffset + i, ByteBuffer.wrap(entry.getPayload()).getLong());
+        }
+    }
+
+    private static byte[] payload(long value) {
+        return ByteBuffer.allocate(8).putLong(value).array();
+    }
+
+    private int segmentFiles() throws Exception {
+        int files = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.log")) {
+            for (Path ignored : stream) {
+                files++;
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,53 @@
+package com.auction.session;
+
+import jakarta.ejb.EJBException;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+
+    @Test
+    void retriesUntilAnAttemptWins() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = new OptimisticRetry(5).run(1L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("stale");
+            }
+            return "bid";
+        });
+
+        assertEquals("bid", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void reportsConflictOnceRetriesRunOut() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(BidConflictException.class, () -> new OptimisticRetry(2).run(1L, () -> {
+            attempts.incrementAndGet();
+            // The container wraps the failure of a REQUIRES_NEW attempt
+            throw new EJBException(new RuntimeException(new OptimisticLockException("stale")));
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalArgumentException failure = new IllegalArgumentException("Bid amount must be at least 11");
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> new OptimisticRetry(5).run(1L, () -> {
+                    attempts.incrementAndGet();
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(1, attempts.get());
+    }
+}